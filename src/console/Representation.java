@@ -48,7 +48,7 @@ public class Representation {
 
         newGame.setMap(mapName);
         System.out.println();
-        if (newGame.getMap().getShortestCost() > newGame.getMap().getPoints()) {
+        if (!newGame.getPlayability().isPlayable()) {
             System.out.println("*----------------------*");
             System.out.println("UNPLAYABLE MAP!!");
             System.out.println("*----------------------*");
@@ -130,8 +130,8 @@ public class Representation {
             System.out.print("Write your username: ");
             String name = entry.nextLine();
             Leaderboard board = new Leaderboard(name);
-            board.insertScore(game.getScore());
-            board.writeScores(path, name, game.getScore());
+            board.insertScore(board.writeScores(path, name, game.getDifficulty(), game.getScore()));
+            board.readPlayer(path, name);
         }
     }
 }
@@ -0,0 +1,98 @@
+package game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Classe que joga muitos jogos simulados em paralelo sobre o mesmo mapa partilhado,
+ * num {@link ForkJoinPool}, e junta os resultados num {@link BatchStatistics}.
+ *
+ * Os jogos sao divididos em blocos; cada bloco junta os seus resultados num acumulador
+ * local e passa-os para as estatisticas partilhadas uma unica vez. O jogo i usa sempre
+ * a mesma semente, pelo que o resultado nao depende do numero de threads.
+ */
+public class BatchSimulation {
+    private static final int CHUNK = 1024;
+    private static final int DEFAULT_BUCKET_WIDTH = 10;
+
+    private final GameSimulator simulator;
+    private final ForkJoinPool pool;
+
+    /**
+     * Metodo construtor que cria uma simulacao no pool comum
+     *
+     * @param simulator simulador de cada jogo
+     */
+    public BatchSimulation(GameSimulator simulator) {
+        this(simulator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Metodo construtor que cria uma simulacao
+     *
+     * @param simulator simulador de cada jogo
+     * @param pool pool onde os jogos sao jogados
+     */
+    public BatchSimulation(GameSimulator simulator, ForkJoinPool pool) {
+        this.simulator = simulator;
+        this.pool = pool;
+    }
+
+    /**
+     * Metodo que cria estatisticas vazias adequadas ao mapa e aos pontos de vida do simulador
+     *
+     * @return estatisticas vazias
+     */
+    public BatchStatistics newStatistics() {
+        return new BatchStatistics(this.simulator.getMap().size(),
+                this.simulator.getPoints() + this.simulator.getShieldPoints(), DEFAULT_BUCKET_WIDTH);
+    }
+
+    /**
+     * Metodo que joga varios jogos em paralelo
+     *
+     * @param games numero de jogos
+     * @param seed semente dos jogos
+     * @return estatisticas dos jogos
+     */
+    public BatchStatistics run(int games, long seed) {
+        BatchStatistics statistics = newStatistics();
+        run(games, seed, statistics);
+        return statistics;
+    }
+
+    /**
+     * Metodo que joga varios jogos em paralelo, juntando os resultados a estatisticas existentes
+     *
+     * @param games numero de jogos
+     * @param seed semente dos jogos
+     * @param statistics estatisticas onde os resultados sao juntos
+     */
+    public void run(int games, long seed, BatchStatistics statistics) {
+        if (games < 0) {
+            throw new IllegalArgumentException("The number of games can't be negative.");
+        }
+
+        int chunks = (games + CHUNK - 1) / CHUNK;
+
+        try {
+            this.pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                BatchStatistics.Partial partial = statistics.newPartial();
+                int end = Math.min(games, (chunk + 1) * CHUNK);
+
+                for (int i = chunk * CHUNK; i < end; i++) {
+                    partial.record(this.simulator.play(new SplittableRandom(seed + i * 0x9E3779B97F4A7C15L)));
+                }
+
+                statistics.merge(partial);
+            })).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
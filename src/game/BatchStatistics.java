@@ -0,0 +1,236 @@
+package game;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatisticas agregadas de um conjunto de jogos simulados: taxa de vitorias,
+ * histograma das pontuacoes, comprimento medio dos caminhos e numero de visitas a
+ * cada divisao.
+ *
+ * Os contadores nao usam locks, pelo que varias threads podem juntar resultados ao
+ * mesmo tempo. Para reduzir a contencao, cada thread deve juntar os seus resultados
+ * num {@link Partial} e so depois passa-los para aqui com {@link #merge(Partial)}.
+ */
+public class BatchStatistics {
+
+    private final int bucketWidth;
+    private final LongAdder games;
+    private final LongAdder[] outcomes;
+    private final LongAdder steps;
+    private final LongAdder scores;
+    private final AtomicLongArray histogram;
+    private final AtomicLongArray visits;
+
+    /**
+     * Metodo construtor que cria estatisticas vazias
+     *
+     * @param rooms numero de divisoes do mapa
+     * @param maxScore maior pontuacao possivel, que define o numero de intervalos do histograma
+     * @param bucketWidth largura de cada intervalo do histograma
+     */
+    public BatchStatistics(int rooms, int maxScore, int bucketWidth) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("The bucket width must be at least 1.");
+        }
+
+        this.bucketWidth = bucketWidth;
+        this.games = new LongAdder();
+        this.outcomes = new LongAdder[GameOutcome.values().length];
+        this.steps = new LongAdder();
+        this.scores = new LongAdder();
+        this.histogram = new AtomicLongArray(Math.max(0, maxScore) / bucketWidth + 1);
+        this.visits = new AtomicLongArray(rooms);
+
+        for (int i = 0; i < this.outcomes.length; i++) {
+            this.outcomes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Metodo que junta o resultado de um jogo
+     *
+     * @param result resultado do jogo
+     */
+    public void record(SimulationResult result) {
+        Partial partial = newPartial();
+        partial.record(result);
+        merge(partial);
+    }
+
+    /**
+     * Metodo que cria um acumulador local, a ser usado por uma unica thread
+     *
+     * @return acumulador vazio
+     */
+    public Partial newPartial() {
+        return new Partial(this.visits.length(), this.histogram.length());
+    }
+
+    /**
+     * Metodo que junta os resultados de um acumulador local
+     *
+     * @param partial acumulador local
+     */
+    public void merge(Partial partial) {
+        this.games.add(partial.games);
+        this.steps.add(partial.steps);
+        this.scores.add(partial.scores);
+
+        for (int i = 0; i < this.outcomes.length; i++) {
+            if (partial.outcomes[i] != 0) {
+                this.outcomes[i].add(partial.outcomes[i]);
+            }
+        }
+
+        for (int i = 0; i < partial.histogram.length; i++) {
+            if (partial.histogram[i] != 0) {
+                this.histogram.addAndGet(i, partial.histogram[i]);
+            }
+        }
+
+        for (int i = 0; i < partial.visits.length; i++) {
+            if (partial.visits[i] != 0) {
+                this.visits.addAndGet(i, partial.visits[i]);
+            }
+        }
+    }
+
+    /**
+     * Metodo que obtem o numero de jogos
+     *
+     * @return numero de jogos
+     */
+    public long getGames() {
+        return this.games.sum();
+    }
+
+    /**
+     * Metodo que obtem o numero de jogos que acabaram de uma forma
+     *
+     * @param outcome resultado
+     * @return numero de jogos
+     */
+    public long getCount(GameOutcome outcome) {
+        return this.outcomes[outcome.ordinal()].sum();
+    }
+
+    /**
+     * Metodo que obtem a fracao de jogos ganhos
+     *
+     * @return taxa de vitorias, entre 0 e 1
+     */
+    public double getWinRate() {
+        long total = getGames();
+        return total == 0 ? 0 : (double) getCount(GameOutcome.WON) / total;
+    }
+
+    /**
+     * Metodo que obtem o numero medio de movimentos por jogo
+     *
+     * @return comprimento medio dos caminhos
+     */
+    public double getMeanPathLength() {
+        long total = getGames();
+        return total == 0 ? 0 : (double) this.steps.sum() / total;
+    }
+
+    /**
+     * Metodo que obtem a pontuacao final media
+     *
+     * @return pontuacao media
+     */
+    public double getMeanScore() {
+        long total = getGames();
+        return total == 0 ? 0 : (double) this.scores.sum() / total;
+    }
+
+    /**
+     * Metodo que obtem a largura de cada intervalo do histograma
+     *
+     * @return largura dos intervalos
+     */
+    public int getBucketWidth() {
+        return this.bucketWidth;
+    }
+
+    /**
+     * Metodo que obtem o histograma das pontuacoes finais. O intervalo i conta as
+     * pontuacoes entre i * largura e (i + 1) * largura; as pontuacoes negativas contam
+     * no primeiro e as que passam o maximo no ultimo
+     *
+     * @return copia do histograma
+     */
+    public long[] getScoreHistogram() {
+        long[] copy = new long[this.histogram.length()];
+
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = this.histogram.get(i);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Metodo que obtem o numero de visitas a uma divisao, contando a divisao inicial
+     *
+     * @param room identificador da divisao
+     * @return numero de visitas
+     */
+    public long getVisits(int room) {
+        return this.visits.get(room);
+    }
+
+    /**
+     * Metodo toString
+     *
+     * @return representacao textual das estatisticas
+     */
+    @Override
+    public String toString() {
+        return "Games: " + getGames() + "; Win rate: " + getWinRate() + "; Mean score: " + getMeanScore()
+                + "; Mean path length: " + getMeanPathLength();
+    }
+
+    /**
+     * Acumulador local de resultados, sem sincronizacao, a ser usado por uma unica thread
+     */
+    public final class Partial {
+        private long games;
+        private long steps;
+        private long scores;
+        private final long[] outcomes;
+        private final long[] histogram;
+        private final long[] visits;
+
+        private Partial(int rooms, int buckets) {
+            this.outcomes = new long[GameOutcome.values().length];
+            this.histogram = new long[buckets];
+            this.visits = new long[rooms];
+        }
+
+        /**
+         * Metodo que junta o resultado de um jogo
+         *
+         * @param result resultado do jogo
+         */
+        public void record(SimulationResult result) {
+            int score = result.getScore();
+            int bucket = Math.min(Math.max(score, 0) / BatchStatistics.this.bucketWidth, this.histogram.length - 1);
+
+            this.games++;
+            this.steps += result.getSteps();
+            this.scores += score;
+            this.outcomes[result.getOutcome().ordinal()]++;
+            this.histogram[bucket]++;
+
+            for (int i = 0; i <= result.getSteps(); i++) {
+                int room = result.getPathId(i);
+
+                if (room >= 0 && room < this.visits.length) {
+                    this.visits[room]++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import structures.Network;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Classe que le e escreve mapas num formato binario compacto, ja com o grafo construido.
+ *
+ * O ficheiro tem um cabecalho com a versao, a tabela de nomes das divisoes e as
+ * ligacoes em linhas comprimidas (CSR): o inicio da linha de cada divisao, os destinos
+ * e os danos de cada ligacao. A leitura mapeia o ficheiro em memoria e copia cada
+ * bloco de uma vez para arrays primitivos, sem criar objetos por ligacao.
+ *
+ * <pre>
+ * int    MAGIC, VERSION
+ * int    pontos, divisoes, ligacoes, entrada (-1 se nao existir), bytes dos nomes
+ * nomes  nome do mapa e de cada divisao, cada um com o tamanho seguido dos bytes UTF-8
+ * int    inicio das linhas [divisoes + 1]
+ * int    destinos [ligacoes]
+ * double danos [ligacoes]
+ * </pre>
+ */
+public class BinaryMapFile {
+
+    /**
+     * Extensao dos mapas binarios
+     */
+    public static final String EXTENSION = ".map";
+
+    private static final int MAGIC = 0x4D415045;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 7 * Integer.BYTES;
+
+    private final String name;
+    private final int points;
+    private final String entrance;
+    private final Network<String> network;
+
+    private BinaryMapFile(String name, int points, String entrance, Network<String> network) {
+        this.name = name;
+        this.points = points;
+        this.entrance = entrance;
+        this.network = network;
+    }
+
+    /**
+     * Metodo que verifica se um ficheiro e um mapa binario, pela extensao
+     *
+     * @param path path do mapa
+     * @return true se o mapa for binario, false caso contrario
+     */
+    public static boolean isBinary(String path) {
+        return path.endsWith(EXTENSION);
+    }
+
+    /**
+     * Metodo que le um mapa binario
+     *
+     * @param path path do mapa
+     * @return o mapa lido
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws IOException se o ficheiro nao for um mapa binario valido
+     */
+    public static BinaryMapFile read(String path) throws IOException {
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(path);
+        }
+
+        try {
+            return read(buffer);
+        } catch (RuntimeException ex) {
+            throw new IOException("Invalid binary map: " + path, ex);
+        }
+    }
+
+    private static BinaryMapFile read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary map.");
+        }
+
+        int version = buffer.getInt();
+
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary map version " + version + ".");
+        }
+
+        int points = buffer.getInt();
+        int numVertices = buffer.getInt();
+        int numEdges = buffer.getInt();
+        int entrance = buffer.getInt();
+        byte[] names = new byte[buffer.getInt()];
+        buffer.get(names);
+
+        int position = 0;
+        String[] rooms = new String[numVertices + 1];
+
+        for (int i = 0; i < rooms.length; i++) {
+            int length = ((names[position] & 0xFF) << 24) | ((names[position + 1] & 0xFF) << 16)
+                    | ((names[position + 2] & 0xFF) << 8) | (names[position + 3] & 0xFF);
+            rooms[i] = new String(names, position + Integer.BYTES, length, StandardCharsets.UTF_8);
+            position += Integer.BYTES + length;
+        }
+
+        int[] offsets = new int[numVertices + 1];
+        int[] targets = new int[numEdges];
+        double[] weights = new double[numEdges];
+
+        buffer.asIntBuffer().get(offsets);
+        buffer.position(buffer.position() + offsets.length * Integer.BYTES);
+        buffer.asIntBuffer().get(targets);
+        buffer.position(buffer.position() + targets.length * Integer.BYTES);
+        buffer.asDoubleBuffer().get(weights);
+
+        String[] vertices = new String[numVertices];
+        System.arraycopy(rooms, 1, vertices, 0, numVertices);
+
+        return new BinaryMapFile(rooms[0], points, entrance == -1 ? null : vertices[entrance],
+                new Network<>(String.class, vertices, offsets, targets, weights));
+    }
+
+    /**
+     * Metodo que escreve um mapa no formato binario
+     *
+     * @param path path do ficheiro a escrever
+     * @param name nome do mapa
+     * @param points pontos de vida iniciais
+     * @param entrance divisao de entrada, ou null se nao existir
+     * @param network grafo das divisoes do mapa
+     * @throws IOException se nao for possivel escrever o ficheiro
+     * @throws ElementDoesntExistException
+     */
+    public static void write(String path, String name, int points, String entrance, Network<String> network) throws IOException, ElementDoesntExistException {
+        int numVertices = network.size();
+        int numEdges = network.edgeCount();
+        int[] offsets = new int[numVertices + 1];
+        int[] targets = new int[numEdges];
+        double[] weights = new double[numEdges];
+        byte[][] names = new byte[numVertices + 1][];
+        int entranceIndex = -1;
+        int namesLength = 0;
+
+        network.toCompressedRows(offsets, targets, weights);
+        names[0] = name.getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < numVertices; i++) {
+            String room = network.getVertex(i);
+            names[i + 1] = room.getBytes(StandardCharsets.UTF_8);
+
+            if (room.equals(entrance)) {
+                entranceIndex = i;
+            }
+        }
+
+        for (byte[] room : names) {
+            namesLength += Integer.BYTES + room.length;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(points);
+            out.writeInt(numVertices);
+            out.writeInt(numEdges);
+            out.writeInt(entranceIndex);
+            out.writeInt(namesLength);
+
+            for (byte[] room : names) {
+                out.writeInt(room.length);
+                out.write(room);
+            }
+
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+
+            for (int target : targets) {
+                out.writeInt(target);
+            }
+
+            for (double weight : weights) {
+                out.writeDouble(weight);
+            }
+        }
+    }
+
+    /**
+     * Metodo que obtem o nome do mapa
+     *
+     * @return nome do mapa
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Metodo que obtem os pontos de vida iniciais do mapa
+     *
+     * @return pontos de vida
+     */
+    public int getPoints() {
+        return this.points;
+    }
+
+    /**
+     * Metodo que obtem a divisao ligada a entrada
+     *
+     * @return a divisao de entrada, ou null se nao existir
+     */
+    public String getEntrance() {
+        return this.entrance;
+    }
+
+    /**
+     * Metodo que obtem o grafo das divisoes do mapa
+     *
+     * @return grafo do mapa
+     */
+    public Network<String> getNetwork() {
+        return this.network;
+    }
+}
@@ -1,12 +1,11 @@
 package game;
 
-import structures.ArrayOrderedList;
 import exceptions.ElementDoesntExistException;
 import exceptions.EmptyCollectionException;
 import exceptions.InvalidOperationException;
 import interfaces.GameInterface;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
  * Classe correspondente ao funcionamento do jogo
@@ -17,7 +16,7 @@ public class Game implements GameInterface{
     private int score;
     private String startingRoom;
     private String endRoom;
-    private ArrayOrderedList<String> movingOptions;
+    private RoomList movingOptions;
 
     /**
      * Método construtor que permite a criação de um jogo
@@ -28,7 +27,7 @@ public class Game implements GameInterface{
         this.score = 0;
         this.startingRoom = "Entrada";
         this.endRoom = "Exterior";
-        this.movingOptions = new ArrayOrderedList<>(  );
+        this.movingOptions = null;
     }
 
     /**
@@ -41,14 +40,15 @@ public class Game implements GameInterface{
     }
 
     /**
-     * Método que atribui um mapa ao jogo
+     * Método que atribui um mapa ao jogo, em JSON ou no formato binario se o path terminar em {@value BinaryMapFile#EXTENSION}.
+     * O grafo do mapa e partilhado com os outros jogos atraves do {@link MapRegistry}
      * @param path path onde se encontra o mapa a ser jogado
-     * @throws FileNotFoundException
+     * @throws IOException
      */
     @Override
-    public void setMap(String path) throws FileNotFoundException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException {
-        this.mapToPlay = new Map();
-        this.mapToPlay.readMapFromJson(path);
+    public void setMap(String path) throws IOException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException {
+        this.mapToPlay = MapRegistry.getDefault().get(path);
+
         this.score = this.mapToPlay.getPoints();
     }
 
@@ -90,8 +90,18 @@ public class Game implements GameInterface{
      */
     @Override
     public void move(String divisionName) throws ElementDoesntExistException, EmptyCollectionException {
-        this.score -= (this.mapToPlay.getDamage(divisionName) * this.difficulty);
-        this.mapToPlay.move(divisionName);
+        move(this.mapToPlay.getRoomId(divisionName));
+    }
+
+    /**
+     * Metodo que permite ao jogador mover-se pelo mapa, pelo identificador da divisao
+     * @param room identificador da divisão do mapa para onde o jogador se quer mover
+     * @throws exceptions.ElementDoesntExistException
+     * @throws exceptions.EmptyCollectionException
+     */
+    public void move(int room) throws ElementDoesntExistException, EmptyCollectionException {
+        this.score -= (this.mapToPlay.getDamage(room) * this.difficulty);
+        this.mapToPlay.move(room);
         this.movingOptions = getPossibleMoves();
     }
 
@@ -104,14 +114,25 @@ public class Game implements GameInterface{
         return this.mapToPlay != null && this.difficulty != 0;
     }
 
+    /**
+     * Método que obtem a analise de jogabilidade do mapa para a dificuldade do jogo,
+     * ja calculada quando o mapa foi lido
+     * @return analise de jogabilidade
+     * @throws exceptions.ElementDoesntExistException
+     * @throws exceptions.EmptyCollectionException
+     */
+    public PlayabilityReport getPlayability() throws ElementDoesntExistException, EmptyCollectionException {
+        return this.mapToPlay.getTopology().getPlayability(this.difficulty);
+    }
+
     /**
      * Método que fornece uma lista de todos os movimentos possiveis quando o jogador se encontra numa determinada
-     * divisao do mapa
+     * divisao do mapa. A lista e calculada quando o mapa e lido e e so de leitura
      * @return lista as divisoes para onde o jogador se pode mover
      * @throws exceptions.ElementDoesntExistException
      * @throws exceptions.EmptyCollectionException
      */
-    public ArrayOrderedList<String> getPossibleMoves() throws ElementDoesntExistException, EmptyCollectionException {
-        return this.mapToPlay.getNeighbours();
+    public RoomList getPossibleMoves() throws ElementDoesntExistException, EmptyCollectionException {
+        return this.mapToPlay.getMoves();
     }
 }
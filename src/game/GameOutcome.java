@@ -0,0 +1,26 @@
+package game;
+
+/**
+ * Resultado de um jogo simulado
+ */
+public enum GameOutcome {
+    /**
+     * O jogador chegou ao exterior com pontos de vida
+     */
+    WON,
+
+    /**
+     * O jogador ficou sem pontos de vida
+     */
+    DIED,
+
+    /**
+     * O jogo atingiu o numero maximo de movimentos
+     */
+    STEP_LIMIT,
+
+    /**
+     * O jogador ficou sem movimentos possiveis, ou a estrategia desistiu
+     */
+    STUCK
+}
@@ -0,0 +1,264 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Classe que joga jogos completos em memoria, sem consola, com as mesmas regras do
+ * jogo manual: cada movimento tira o dano da ligacao multiplicado pela dificuldade,
+ * o escudo soma os seus pontos e o jogo acaba no exterior ou quando os pontos de vida
+ * chegam a zero. Tal como no jogo manual, o escudo soma os seus pontos sempre que o
+ * jogador entra na sua divisao, a menos que o simulador seja criado para o dar uma unica
+ * vez. O escudo pode estar numa divisao fixa ou ser sorteado no inicio de cada jogo,
+ * tal como no jogo manual.
+ *
+ * O simulador nao muda depois de criado e cada jogo usa o seu proprio gerador de
+ * numeros aleatorios, pelo que o mesmo simulador pode jogar varios jogos ao mesmo tempo.
+ */
+public class GameSimulator {
+
+    /**
+     * Numero maximo de movimentos por omissao
+     */
+    public static final int DEFAULT_MAX_STEPS = 10000;
+
+    private final MapTopology map;
+    private final int start;
+    private final int points;
+    private final int difficulty;
+    private final MovePolicy policy;
+    private final int[] shieldRooms;
+    private final int minShield;
+    private final int maxShield;
+    private final boolean shieldOnce;
+    private final int maxSteps;
+
+    /**
+     * Metodo construtor que cria um simulador sem escudo
+     *
+     * @param map mapa a ser jogado, a partir da sua divisao atual e com os seus pontos de vida
+     * @param difficulty dificuldade do jogo
+     * @param policy estrategia de movimento
+     */
+    public GameSimulator(Map map, int difficulty, MovePolicy policy) {
+        this(map.getTopology(), map.getCurrentRoomId(), map.getPoints(), difficulty, policy, -1, 0, DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * Metodo construtor que cria um simulador com escudo
+     *
+     * @param map mapa a ser jogado, a partir da sua divisao atual e com os seus pontos de vida
+     * @param difficulty dificuldade do jogo
+     * @param policy estrategia de movimento
+     * @param shieldRoom divisao onde esta o escudo
+     * @param shieldPoints pontos de vida do escudo
+     * @param maxSteps numero maximo de movimentos de cada jogo
+     * @throws ElementDoesntExistException se a divisao do escudo nao existir
+     */
+    public GameSimulator(Map map, int difficulty, MovePolicy policy, String shieldRoom, int shieldPoints, int maxSteps) throws ElementDoesntExistException {
+        this(map.getTopology(), map.getCurrentRoomId(), map.getPoints(), difficulty, policy,
+                map.getRoomId(shieldRoom), shieldPoints, maxSteps);
+    }
+
+    /**
+     * Metodo construtor que cria um simulador a partir dos identificadores das divisoes
+     *
+     * @param map mapa a ser jogado
+     * @param start identificador da divisao inicial
+     * @param points pontos de vida iniciais
+     * @param difficulty dificuldade do jogo
+     * @param policy estrategia de movimento
+     * @param shieldRoom identificador da divisao do escudo, ou -1 se nao houver escudo
+     * @param shieldPoints pontos de vida do escudo
+     * @param maxSteps numero maximo de movimentos de cada jogo
+     */
+    public GameSimulator(MapTopology map, int start, int points, int difficulty, MovePolicy policy, int shieldRoom, int shieldPoints, int maxSteps) {
+        this(map, start, points, difficulty, policy, shieldRoom == -1 ? new int[0] : new int[]{shieldRoom},
+                shieldPoints, shieldPoints, maxSteps);
+    }
+
+    /**
+     * Metodo construtor que cria um simulador em que o escudo e sorteado no inicio de cada jogo
+     *
+     * @param map mapa a ser jogado
+     * @param start identificador da divisao inicial
+     * @param points pontos de vida iniciais
+     * @param difficulty dificuldade do jogo
+     * @param policy estrategia de movimento
+     * @param shieldRooms identificadores das divisoes onde o escudo pode estar, vazio se nao houver escudo
+     * @param minShield menor valor do escudo
+     * @param maxShield maior valor do escudo
+     * @param maxSteps numero maximo de movimentos de cada jogo
+     */
+    public GameSimulator(MapTopology map, int start, int points, int difficulty, MovePolicy policy, int[] shieldRooms, int minShield, int maxShield, int maxSteps) {
+        this(map, start, points, difficulty, policy, shieldRooms, minShield, maxShield, false, maxSteps);
+    }
+
+    /**
+     * Metodo construtor que cria um simulador em que o escudo e sorteado no inicio de cada
+     * jogo e que pode dar o escudo uma unica vez
+     *
+     * @param map mapa a ser jogado
+     * @param start identificador da divisao inicial
+     * @param points pontos de vida iniciais
+     * @param difficulty dificuldade do jogo
+     * @param policy estrategia de movimento
+     * @param shieldRooms identificadores das divisoes onde o escudo pode estar, vazio se nao houver escudo
+     * @param minShield menor valor do escudo
+     * @param maxShield maior valor do escudo
+     * @param shieldOnce true se o escudo so for dado na primeira entrada na sua divisao,
+     * false se for dado em todas, como no jogo manual
+     * @param maxSteps numero maximo de movimentos de cada jogo
+     */
+    public GameSimulator(MapTopology map, int start, int points, int difficulty, MovePolicy policy, int[] shieldRooms, int minShield, int maxShield, boolean shieldOnce, int maxSteps) {
+        if (minShield > maxShield) {
+            throw new IllegalArgumentException("The minimum shield can't be greater than the maximum.");
+        }
+
+        if (difficulty < 1) {
+            throw new IllegalArgumentException("The difficulty must be at least 1.");
+        }
+
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("The step limit can't be negative.");
+        }
+
+        this.map = map;
+        this.start = start;
+        this.points = points;
+        this.difficulty = difficulty;
+        this.policy = policy;
+        this.shieldRooms = shieldRooms.clone();
+        this.minShield = minShield;
+        this.maxShield = maxShield;
+        this.shieldOnce = shieldOnce;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Metodo que obtem o mapa jogado pelo simulador
+     *
+     * @return o mapa
+     */
+    public MapTopology getMap() {
+        return this.map;
+    }
+
+    /**
+     * Metodo que obtem os pontos de vida iniciais de cada jogo
+     *
+     * @return pontos de vida iniciais
+     */
+    public int getPoints() {
+        return this.points;
+    }
+
+    /**
+     * Metodo que obtem o maior valor possivel do escudo
+     *
+     * @return pontos do escudo, ou 0 se nao houver escudo
+     */
+    public int getShieldPoints() {
+        return this.shieldRooms.length == 0 ? 0 : this.maxShield;
+    }
+
+    /**
+     * Metodo que verifica se o escudo so e dado na primeira entrada na sua divisao
+     *
+     * @return true se o escudo for dado uma unica vez, false se for dado em todas as entradas
+     */
+    public boolean isShieldOnce() {
+        return this.shieldOnce;
+    }
+
+    /**
+     * Metodo que joga um jogo com uma semente, para que possa ser repetido
+     *
+     * @param seed semente do gerador de numeros aleatorios
+     * @return resultado do jogo
+     */
+    public SimulationResult play(long seed) {
+        return play(new SplittableRandom(seed));
+    }
+
+    /**
+     * Metodo que joga um jogo completo
+     *
+     * @param random gerador de numeros aleatorios, usado apenas por este jogo
+     * @return resultado do jogo
+     */
+    public SimulationResult play(SplittableRandom random) {
+        int[] path = new int[16];
+        int steps = 0;
+        int room = this.start;
+        int score = this.points;
+        boolean shieldPicked = false;
+        GameOutcome outcome;
+
+        //so sorteia o que nao for fixo, para que um escudo fixo nao gaste numeros aleatorios
+        int shieldRoom = this.shieldRooms.length == 0 ? -1
+                : this.shieldRooms.length == 1 ? this.shieldRooms[0] : this.shieldRooms[random.nextInt(this.shieldRooms.length)];
+        int shieldPoints = shieldRoom == -1 || this.minShield == this.maxShield ? this.minShield
+                : random.nextInt(this.minShield, this.maxShield + 1);
+
+        path[0] = room;
+
+        while (true) {
+            if (room == MapTopology.EXTERIOR) {
+                outcome = GameOutcome.WON;
+                break;
+            }
+
+            if (steps == this.maxSteps) {
+                outcome = GameOutcome.STEP_LIMIT;
+                break;
+            }
+
+            RoomList moves = movesOf(room);
+
+            if (moves == null || moves.isEmpty()) {
+                outcome = GameOutcome.STUCK;
+                break;
+            }
+
+            int next = this.policy.choose(this.map, room, moves, random);
+
+            if (next == -1 || !moves.containsId(next)) {
+                outcome = GameOutcome.STUCK;
+                break;
+            }
+
+            score -= this.map.getDamage(room, next) * this.difficulty;
+            room = next;
+            steps++;
+
+            if (steps == path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+
+            path[steps] = room;
+
+            if (room == shieldRoom && !(this.shieldOnce && shieldPicked)) {
+                score += shieldPoints;
+                shieldPicked = true;
+            }
+
+            if (score <= 0) {
+                outcome = GameOutcome.DIED;
+                break;
+            }
+        }
+
+        return new SimulationResult(this.map, outcome, score, Arrays.copyOf(path, steps + 1), shieldPicked);
+    }
+
+    private RoomList movesOf(int room) {
+        try {
+            return this.map.getMoves(room);
+        } catch (ElementDoesntExistException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package game;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonReader;
+
+import structures.VertexIndex;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Classe que faz a leitura de um mapa JSON numa unica passagem, com a API de
+ * tokens do Gson, sem construir a arvore do documento.
+ *
+ * As divisoes, os fantasmas e as ligacoes sao guardados em arrays primitivos e
+ * cada nome e convertido num identificador inteiro atraves de uma tabela de nomes,
+ * pelo que a leitura e O(V + E).
+ */
+public class JsonMapReader {
+
+    private String name;
+    private int points;
+    private String entrance;
+    private final VertexIndex<String> nameIndex;
+    private String[] names;
+    private int[] ghosts;
+    private boolean[] isRoom;
+    private int nameCount;
+    private int[] rooms;
+    private int roomCount;
+    private int[] linkFrom;
+    private int[] linkTo;
+    private int linkCount;
+
+    private JsonMapReader() {
+        this.name = "";
+        this.points = 0;
+        this.entrance = null;
+        this.nameIndex = new VertexIndex<>(64);
+        this.names = new String[64];
+        this.ghosts = new int[64];
+        this.isRoom = new boolean[64];
+        this.nameCount = 0;
+        this.rooms = new int[64];
+        this.roomCount = 0;
+        this.linkFrom = new int[128];
+        this.linkTo = new int[128];
+        this.linkCount = 0;
+    }
+
+    /**
+     * Metodo que le um mapa do tipo JSON
+     *
+     * @param path path do mapa
+     * @return o mapa lido
+     * @throws FileNotFoundException se o ficheiro nao existir
+     */
+    public static JsonMapReader read(String path) throws FileNotFoundException {
+        JsonMapReader data = new JsonMapReader();
+
+        try (JsonReader reader = new JsonReader(new BufferedReader(new FileReader(path)))) {
+            data.readDocument(reader);
+        } catch (FileNotFoundException ex) {
+            throw ex;
+        } catch (IOException ex) {
+            throw new JsonIOException(ex);
+        }
+
+        return data;
+    }
+
+    private void readDocument(JsonReader reader) throws IOException {
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "nome":
+                    this.name = reader.nextString();
+                    break;
+                case "pontos":
+                    this.points = reader.nextInt();
+                    break;
+                case "mapa":
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        readRoom(reader);
+                    }
+
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+    }
+
+    private void readRoom(JsonReader reader) throws IOException {
+        int room = this.roomCount;
+        int firstLink = this.linkCount;
+        int roomName = -1;
+        int ghost = 0;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "aposento":
+                    roomName = intern(reader.nextString());
+                    break;
+                case "fantasma":
+                    ghost = reader.nextInt();
+                    break;
+                case "ligacoes":
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        addLink(room, intern(reader.nextString()));
+                    }
+
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        if (roomName == -1) {
+            throw new JsonIOException("Room without \"aposento\" in the map.");
+        }
+
+        //o dano de uma divisao repetida e o da primeira ocorrencia
+        if (!this.isRoom[roomName]) {
+            this.ghosts[roomName] = ghost;
+            this.isRoom[roomName] = true;
+        }
+
+        if (this.roomCount == this.rooms.length) {
+            this.rooms = Arrays.copyOf(this.rooms, this.roomCount * 2);
+        }
+
+        this.rooms[this.roomCount++] = roomName;
+
+        for (int i = firstLink; i < this.linkCount; i++) {
+            if (this.names[this.linkTo[i]].equals("entrada")) {
+                this.entrance = this.names[roomName];
+            }
+        }
+    }
+
+    private int intern(String value) {
+        int id = this.nameIndex.get(value);
+
+        if (id == -1) {
+            if (this.nameCount == this.names.length) {
+                this.names = Arrays.copyOf(this.names, this.nameCount * 2);
+                this.ghosts = Arrays.copyOf(this.ghosts, this.nameCount * 2);
+                this.isRoom = Arrays.copyOf(this.isRoom, this.nameCount * 2);
+            }
+
+            id = this.nameCount++;
+            this.names[id] = value;
+            this.ghosts[id] = 0;
+            this.nameIndex.put(value, id);
+        }
+
+        return id;
+    }
+
+    private void addLink(int room, int target) {
+        if (this.linkCount == this.linkFrom.length) {
+            this.linkFrom = Arrays.copyOf(this.linkFrom, this.linkCount * 2);
+            this.linkTo = Arrays.copyOf(this.linkTo, this.linkCount * 2);
+        }
+
+        this.linkFrom[this.linkCount] = room;
+        this.linkTo[this.linkCount] = target;
+        this.linkCount++;
+    }
+
+    /**
+     * Metodo que obtem o nome do mapa
+     *
+     * @return nome do mapa
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Metodo que obtem os pontos de vida iniciais do mapa
+     *
+     * @return pontos de vida
+     */
+    public int getPoints() {
+        return this.points;
+    }
+
+    /**
+     * Metodo que obtem a divisao ligada a entrada
+     *
+     * @return a divisao de entrada, ou null se nao existir
+     */
+    public String getEntrance() {
+        return this.entrance;
+    }
+
+    /**
+     * Metodo que obtem o numero de divisoes
+     *
+     * @return numero de divisoes
+     */
+    public int getRoomCount() {
+        return this.roomCount;
+    }
+
+    /**
+     * Metodo que obtem o nome de uma divisao, pela ordem do ficheiro
+     *
+     * @param room posicao da divisao
+     * @return nome da divisao
+     */
+    public String getRoom(int room) {
+        return this.names[this.rooms[room]];
+    }
+
+    /**
+     * Metodo que obtem o identificador do nome de uma divisao, pela ordem do ficheiro
+     *
+     * @param room posicao da divisao
+     * @return identificador do nome da divisao
+     */
+    public int getRoomId(int room) {
+        return this.rooms[room];
+    }
+
+    /**
+     * Metodo que obtem o numero de nomes distintos, das divisoes e dos destinos das ligacoes
+     *
+     * @return numero de nomes
+     */
+    public int getNameCount() {
+        return this.nameCount;
+    }
+
+    /**
+     * Metodo que obtem o identificador de um nome
+     *
+     * @param name nome
+     * @return identificador do nome, ou -1 se o nome nao aparecer no mapa
+     */
+    public int getNameId(String name) {
+        return this.nameIndex.get(name);
+    }
+
+    /**
+     * Metodo que obtem o numero de ligacoes, incluindo as ligacoes a entrada
+     *
+     * @return numero de ligacoes
+     */
+    public int getLinkCount() {
+        return this.linkCount;
+    }
+
+    /**
+     * Metodo que obtem a posicao da divisao de onde parte uma ligacao
+     *
+     * @param link posicao da ligacao
+     * @return posicao da divisao de origem
+     */
+    public int getLinkFrom(int link) {
+        return this.linkFrom[link];
+    }
+
+    /**
+     * Metodo que obtem o nome da divisao onde termina uma ligacao
+     *
+     * @param link posicao da ligacao
+     * @return nome da divisao de destino
+     */
+    public String getLinkTo(int link) {
+        return this.names[this.linkTo[link]];
+    }
+
+    /**
+     * Metodo que obtem o identificador do nome da divisao onde termina uma ligacao
+     *
+     * @param link posicao da ligacao
+     * @return identificador do nome da divisao de destino
+     */
+    public int getLinkToId(int link) {
+        return this.linkTo[link];
+    }
+
+    /**
+     * Metodo que obtem o dano do fantasma da divisao onde termina uma ligacao,
+     * ou 0 se o destino nao for uma divisao do mapa
+     *
+     * @param link posicao da ligacao
+     * @return dano da divisao de destino
+     */
+    public int getLinkDamage(int link) {
+        return this.ghosts[this.linkTo[link]];
+    }
+}
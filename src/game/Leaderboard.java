@@ -1,16 +1,11 @@
 package game;
 
-import structures.ArrayOrderedList;
+import structures.RankedTree;
 import exceptions.EmptyCollectionException;
 import exceptions.InvalidOperationException;
 import interfaces.LeaderboardInterface;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 
@@ -19,22 +14,23 @@ import java.io.PrintWriter;
  */
 public class Leaderboard implements LeaderboardInterface {
 
-    private ArrayOrderedList<Integer> scoreTable;
+    private RankedTree<ScoreEntry> scoreTable;
     private String name;
+    private long lastTimestamp;
 
     /**
      * Método construtor que permite a criação de um jogo
      */
     public Leaderboard(String name) {
         this.name = name;
-        this.scoreTable = new ArrayOrderedList<>();
+        this.scoreTable = new RankedTree<>(ScoreEntry.RANKING);
     }
 
     /**
      * Método construtor que permite a criação da classificacao
      */
     public Leaderboard() {
-        this.scoreTable = new ArrayOrderedList<>();
+        this.scoreTable = new RankedTree<>(ScoreEntry.RANKING);
     }
 
     /**
@@ -45,8 +41,18 @@ public class Leaderboard implements LeaderboardInterface {
      * @throws EmptyCollectionException
      */
     @Override
-    public void insertScore(int score) throws InvalidOperationException, EmptyCollectionException {
-        this.scoreTable.add(score);
+    public synchronized void insertScore(int score) throws InvalidOperationException, EmptyCollectionException {
+        this.lastTimestamp = Math.max(System.currentTimeMillis(), this.lastTimestamp + 1);
+        insertScore(new ScoreEntry(this.name, score, this.lastTimestamp));
+    }
+
+    /**
+     * Metodo que insere uma pontuacao com o jogador, o mapa e a dificuldade
+     *
+     * @param entry pontuacao
+     */
+    public synchronized void insertScore(ScoreEntry entry) {
+        this.scoreTable.add(entry);
     }
 
     /**
@@ -67,12 +73,12 @@ public class Leaderboard implements LeaderboardInterface {
      * @throws EmptyCollectionException
      */
     @Override
-    public int getTopScore() throws InvalidOperationException, EmptyCollectionException {
+    public synchronized int getTopScore() throws InvalidOperationException, EmptyCollectionException {
         if (this.scoreTable.isEmpty()) {
             throw new InvalidOperationException("The list is empty");
         }
 
-        return this.scoreTable.last();
+        return this.scoreTable.first().getScore();
     }
 
     /**
@@ -82,8 +88,8 @@ public class Leaderboard implements LeaderboardInterface {
      * @throws EmptyCollectionException 
      */
     @Override
-    public int getLowestScore() throws InvalidOperationException, EmptyCollectionException {
-        return this.scoreTable.first();
+    public synchronized int getLowestScore() throws InvalidOperationException, EmptyCollectionException {
+        return this.scoreTable.last().getScore();
     }
 
     /**
@@ -92,12 +98,13 @@ public class Leaderboard implements LeaderboardInterface {
      */
     
     @Override
-    public int filledPositions() {
+    public synchronized int filledPositions() {
         return this.scoreTable.size();
     }
 
     /**
-     * Método que insere os scores no ficheiro
+     * Método que insere um score na classificacao do mapa. O score e escrito numa unica
+     * linha no fim do ficheiro, sem reescrever os scores anteriores
      * @param path ficheiro
      * @param name nome do user
      * @param points pontos adquiridos
@@ -107,75 +114,76 @@ public class Leaderboard implements LeaderboardInterface {
      */
     @Override
     public void writeScores(String path, String name, int points) throws IOException, EmptyCollectionException, InvalidOperationException {
+        writeScores(path, name, ScoreEntry.UNKNOWN_DIFFICULTY, points);
+    }
 
-        try (FileWriter fw = new FileWriter(path + ".txt", true);
-                BufferedWriter bw = new BufferedWriter(fw);
-                PrintWriter out = new PrintWriter(bw)) {
-            out.print(this.scoreTable.iterator().next());
-            out.println(" - " + name);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        String[] list = new String[1000];
-        int count = 0;
-
-        try {
-            BufferedReader info = new BufferedReader(new FileReader(path + ".txt"));
-
-            while (info.ready()) {
-                String item = info.readLine();
-                list[count] = item;
-                count++;
-            }
-
-            info.close();
+    /**
+     * Método que insere um score, com a dificuldade do jogo, na classificacao do mapa
+     * @param path ficheiro
+     * @param name nome do user
+     * @param difficulty dificuldade do jogo
+     * @param points pontos adquiridos
+     * @return o score guardado
+     * @throws IOException
+     */
+    public ScoreEntry writeScores(String path, String name, int difficulty, int points) throws IOException {
+        return RankedLeaderboard.open(path + ".txt").add(name, difficulty, points);
+    }
 
-            sort(list, count);
+    /**
+     * Método que mostra o melhor score de um jogador no mapa e a sua posicao, sem percorrer
+     * a classificacao
+     * @param path ficheiro
+     * @param player nome do user
+     * @throws IOException
+     */
+    public void readPlayer(String path, String player) throws IOException {
+        RankedLeaderboard board = RankedLeaderboard.open(path + ".txt");
+        ScoreEntry best = board.getBest(player);
 
-            PrintWriter outfo = new PrintWriter(new FileWriter(path + ".txt"));
+        if (best == null) {
+            System.out.println("No scores for " + player);
+            return;
+        }
 
-            for (int i = 0; i < count; i++) {
-                outfo.println(list[i]);
-            }
+        System.out.println("Best score: " + best.getScore() + " (difficulty " + best.getDifficulty() + ")");
+        System.out.println("Rank: " + board.getRank(player) + " of " + board.size() + " scores, "
+                + board.getPlayerRank(player) + " of " + board.getPlayers() + " players");
+    }
 
-            outfo.close();
-        } catch (IOException e) {
-            System.out.println(e.toString());
-        }
+    /**
+     * Método que obtém os scores que foram guardados no ficheiro, do maior para o menor
+     * @param path nome do ficheiro
+     * @throws FileNotFoundException
+     * @throws IOException 
+     */
+    @Override
+    public void readScores(String path) throws FileNotFoundException, IOException {
+        readScores(path, 1, Integer.MAX_VALUE);
     }
-    
+
     /**
-     * Método que ordena os scores por ordem crescente
-     * @param list array que contém os scores
-     * @param count numero de elementos do array
+     * Método que obtém uma pagina dos scores que foram guardados no ficheiro, do maior para o menor.
+     * Se a classificacao ainda nao estiver aberta neste programa, e lida do ficheiro mapeado em
+     * memoria, sem a carregar toda
+     * @param path nome do ficheiro
+     * @param from posicao do primeiro score, a comecar em 1
+     * @param count numero de scores
+     * @throws FileNotFoundException
+     * @throws IOException 
      */
+    public void readScores(String path, int from, int count) throws FileNotFoundException, IOException {
+        RankedLeaderboard board = RankedLeaderboard.getOpen(path);
+        PrintWriter out = new PrintWriter(System.out);
 
-    public void sort(String[] list, int count) {
-        for (int i = 0; i < count; i++) {
-            for (int j = 0; j < count - 1; j++) {
-                if (list[j].compareTo(list[j + 1]) < 0) {
-                    String temp = list[j];
-                    list[j] = list[j + 1];
-                    list[j + 1] = temp;
-                }
+        if (board != null) {
+            for (ScoreEntry entry : board.getPage(from, count)) {
+                out.println(entry);
             }
-        }
-    }
-/**
- * Método que obtém os scores que foram guardados no ficheiro
- * @param path nome do ficheiro
- * @throws FileNotFoundException
- * @throws IOException 
- */
-    @Override
-    public void readScores(String path) throws FileNotFoundException, IOException {
-        File file = new File(path);
-        BufferedReader br = new BufferedReader(new FileReader(file));
-        String st;
 
-        while ((st = br.readLine()) != null) {
-            System.out.println(st);
+            out.flush();
+        } else {
+            MappedLeaderboard.open(path).print(out, from, count);
         }
     }
 
@@ -188,8 +196,10 @@ public class Leaderboard implements LeaderboardInterface {
     public String toString() {
         StringBuilder str = new StringBuilder();
 
-        for (int i = 0; i < this.filledPositions(); i++) {
-            str.append("Score: ").append(this.scoreTable.iterator().next()).append(", Player: ").append(name);
+        synchronized (this) {
+            for (ScoreEntry entry : this.scoreTable) {
+                str.append("Score: ").append(entry.getScore()).append(", Player: ").append(entry.getName()).append("\n");
+            }
         }
 
         return str.toString();
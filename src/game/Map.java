@@ -1,12 +1,9 @@
 package game;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.stream.JsonReader;
-
-import structures.Network;
+import structures.AllPairsShortestPaths;
+import structures.Heuristic;
+import structures.PathResult;
+import structures.ShortestPathTree;
 import structures.ArrayOrderedList;
 import structures.ArrayUnorderedList;
 import exceptions.ElementDoesntExistException;
@@ -15,32 +12,39 @@ import exceptions.InvalidOperationException;
 import exceptions.UnknownPathException;
 import interfaces.MapInterface;
 
-import java.io.BufferedReader;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
 import java.util.Random;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Classe correspondente ao mapa do jogo
+ * Classe correspondente ao mapa do jogo, do ponto de vista de um jogador.
+ *
+ * A estrutura do mapa fica num {@link MapTopology}, que pode ser partilhado por varios
+ * jogos, e a divisao atual num {@link MapCursor} proprio de cada jogo.
  */
 public class Map implements MapInterface {
 
-    private String name;
+    private MapCursor cursor;
     private int points;
-    private String currentRoom;
-    protected Network<String> map;
 
     /**
      * Metodo contrutor que cria uma intancia de um novo mapa
      */
     public Map() {
-        this.name = "";
-        this.points = 0;
-        this.map = new Network<>(String.class);
-        this.currentRoom = "";
-        this.map.addVertex("exterior");
+        this(MapTopology.empty());
+    }
+
+    /**
+     * Metodo construtor que cria um novo jogo sobre um mapa ja lido, com a
+     * divisao atual na entrada
+     *
+     * @param topology mapa lido
+     */
+    public Map(MapTopology topology) {
+        this.cursor = new MapCursor(topology);
+        this.points = topology.getPoints();
     }
 
     /**
@@ -50,7 +54,16 @@ public class Map implements MapInterface {
      */
     @Override
     public void move(String room) {
-        this.currentRoom = room;
+        this.cursor.move(room);
+    }
+
+    /**
+     * Metodo que atribui uma divisao a divisao atual onde o jogador se encontra, pelo seu identificador
+     *
+     * @param room identificador da divisao a ser atribuida
+     */
+    public void move(int room) {
+        this.cursor.move(room);
     }
 
     /**
@@ -60,7 +73,38 @@ public class Map implements MapInterface {
      */
     @Override
     public String getCurrentRoom() {
-        return this.currentRoom;
+        return this.cursor.getCurrentRoom();
+    }
+
+    /**
+     * Metodo que obtem o identificador da divisao atual onde o jogador se encontra
+     *
+     * @return identificador da divisao atual, ou -1 se o jogador nao estiver numa divisao do mapa
+     */
+    public int getCurrentRoomId() {
+        return this.cursor.getCurrentRoomId();
+    }
+
+    /**
+     * Metodo que obtem o identificador de uma divisao
+     *
+     * @param room nome da divisao
+     * @return identificador da divisao
+     * @throws ElementDoesntExistException se a divisao nao existir
+     */
+    public int getRoomId(String room) throws ElementDoesntExistException {
+        return this.cursor.getTopology().getRoomId(room);
+    }
+
+    /**
+     * Metodo que obtem o nome de uma divisao a partir do seu identificador
+     *
+     * @param room identificador da divisao
+     * @return nome da divisao
+     * @throws ElementDoesntExistException se a divisao nao existir
+     */
+    public String getRoomName(int room) throws ElementDoesntExistException {
+        return this.cursor.getTopology().getRoom(room);
     }
 
     /**
@@ -70,54 +114,60 @@ public class Map implements MapInterface {
      * @throws FileNotFoundException
      */
     public void readMapFromJson(String path) throws FileNotFoundException, EmptyCollectionException, ElementDoesntExistException, InvalidOperationException {
-        JsonElement element = JsonParser.parseReader(
-                new JsonReader(
-                        new BufferedReader(
-                                new FileReader(path)
-                        )
-                )
-        );
-
-        JsonObject jsonDoc = element.getAsJsonObject();
-        JsonArray vertices = jsonDoc.getAsJsonArray("mapa");
-
-        this.name = jsonDoc.get("nome").getAsString();
-        this.points = jsonDoc.get("pontos").getAsInt();
-        int numVertices = vertices.size();
-
-        for (int i = 0; i < numVertices; i++) {
-            JsonObject current = vertices.get(i).getAsJsonObject();
-            this.map.addVertex(current.get("aposento").getAsString());
-        }
+        this.cursor = new MapCursor(MapTopology.readJson(path));
+        this.points = this.cursor.getTopology().getPoints();
+    }
 
-        for (int i = 0; i < numVertices; i++) {
-            JsonObject current = vertices.get(i).getAsJsonObject();
-            JsonArray connections = current.getAsJsonArray("ligacoes");
+    /**
+     * Método que faz a leitura de um mapa no formato binario, escrito por {@link #writeMapToBinary(String)}.
+     * O grafo e construido diretamente a partir do ficheiro, sem passar pelo JSON
+     *
+     * @param path path do mapa a ser jogado
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws IOException se o ficheiro nao for um mapa binario valido
+     */
+    public void readMapFromBinary(String path) throws IOException {
+        this.cursor = new MapCursor(MapTopology.readBinary(path));
+        this.points = this.cursor.getTopology().getPoints();
+    }
 
-            for (int j = 0; j < connections.size(); j++) {
-                if (connections.get(j).getAsString().equals("entrada")) {
-                    this.currentRoom = current.get("aposento").getAsString();
-                } else {
-                    this.map.addEdge(current.get("aposento").getAsString(), connections.get(j).getAsString(), this.getGhostConnection(vertices, connections.get(j).getAsString()));
-                }
-            }
-        }
+    /**
+     * Método que exporta o mapa lido para o formato binario, para ser carregado
+     * mais rapidamente com {@link #readMapFromBinary(String)}
+     *
+     * @param path path do ficheiro a escrever
+     * @throws IOException se nao for possivel escrever o ficheiro
+     * @throws ElementDoesntExistException
+     */
+    public void writeMapToBinary(String path) throws IOException, ElementDoesntExistException {
+        this.cursor.getTopology().writeBinary(path);
     }
-/**
- * Método que obtem o valor do fantasma
- * @param vertex array de divisoes
- * @param connection divisao que tem connection com o aposento
- * @return 
- */
-    private int getGhostConnection(JsonArray vertex, String connection) {
-        int numVertices = vertex.size();
-        for (int i = 0; i < numVertices; i++) {
-            JsonObject current = vertex.get(i).getAsJsonObject();
-            if (current.get("aposento").getAsString().equals(connection)) {
-                return current.get("fantasma").getAsInt();
-            }
-        }
-        return 0;
+
+    /**
+     * Metodo que obtem a estrutura partilhada do mapa
+     *
+     * @return estrutura do mapa
+     */
+    public MapTopology getTopology() {
+        return this.cursor.getTopology();
+    }
+
+    /**
+     * Metodo que obtem a posicao do jogador no mapa
+     *
+     * @return posicao do jogador
+     */
+    public MapCursor getCursor() {
+        return this.cursor;
+    }
+
+    /**
+     * Metodo que obtem o nome do mapa
+     *
+     * @return nome do mapa
+     */
+    public String getName() {
+        return this.cursor.getTopology().getName();
     }
 
     /**
@@ -128,7 +178,18 @@ public class Map implements MapInterface {
      */
     @Override
     public ArrayOrderedList<String> getNeighbours() throws ElementDoesntExistException, EmptyCollectionException {
-        return this.map.getNeighbours(this.currentRoom);
+        return this.cursor.getNeighbours();
+    }
+
+    /**
+     * Metodo que obtem as divisoes para onde o jogador se pode mover a partir da divisao
+     * atual, sem percorrer o grafo
+     *
+     * @return lista so de leitura das divisoes vizinhas, ordenada pelo nome
+     * @throws ElementDoesntExistException se o jogador nao estiver numa divisao do mapa
+     */
+    public RoomList getMoves() throws ElementDoesntExistException {
+        return this.cursor.getMoves();
     }
 
     /**
@@ -160,7 +221,17 @@ public class Map implements MapInterface {
      * @throws exceptions.EmptyCollectionException
      */
     public int getDamage(String nextRoom) throws ElementDoesntExistException, EmptyCollectionException {
-        return (int) this.map.getEdgeWeight(this.currentRoom,nextRoom);
+        return this.cursor.getDamage(nextRoom);
+    }
+
+    /**
+     * Método que obtem o dano da ligacao entre a divisao atual e a seguinte, pelo seu identificador
+     *
+     * @param nextRoom identificador da divisao seguinte a atual
+     * @return dano da ligacao, ou 0 se nao existir
+     */
+    public int getDamage(int nextRoom) {
+        return this.cursor.getDamage(nextRoom);
     }
 
     /**
@@ -170,13 +241,16 @@ public class Map implements MapInterface {
      */
     @Override
     public String toString() {
+        MapTopology topology = this.cursor.getTopology();
+        String previous = this.cursor.getCurrentRoom();
         String s = "";
 
-        for (int i = 0; i < this.map.size();i++) {
+        //o dano de cada divisao e o da ligacao a partir da divisao listada antes dela
+        for (int i = 0; i < topology.size(); i++) {
             try {
-                String room = this.map.iteratorBFS(i).next();
-                s += "Room: " + room + "; Connections: " + this.map.getNeighbours(room) + "; Damage: " + getDamage(room) + "\n";
-                move(room);
+                String room = topology.getRoom(i);
+                s += "Room: " + room + "; Connections: " + topology.getNeighbours(room) + "; Damage: " + topology.getDamage(previous, room) + "\n";
+                previous = room;
 
             } catch (EmptyCollectionException | ElementDoesntExistException ex) {
                 Logger.getLogger(Map.class.getName()).log(Level.SEVERE, null, ex);
@@ -196,7 +270,36 @@ public class Map implements MapInterface {
      * @throws UnknownPathException
      */
     public ArrayUnorderedList<String> getShortest() throws ElementDoesntExistException, InvalidOperationException, EmptyCollectionException, exceptions.EmptyCollectionException, UnknownPathException {
-        return this.map.shortestPathWeight("r00", "exterior");
+        return this.cursor.getTopology().getShortest("r00", "exterior");
+    }
+
+    /**
+     * Metodo que procura o menor caminho possivel para o mapa com o algoritmo A*,
+     * guiado por uma heuristica da distancia ate ao exterior. Para saber apenas o dano
+     * minimo ou o proximo movimento ate ao exterior nao e preciso pesquisar: ambos sao
+     * lidos da tabela das distancias ate ao exterior, por {@link #getShortestCost(String)}
+     * e {@link #getExitTable()}
+     *
+     * @param heuristic estimativa do dano minimo de cada divisao ate ao exterior
+     * @return menor caminho, o seu custo e o numero de divisoes expandidas
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException
+     */
+    public PathResult<String> getShortest(Heuristic heuristic) throws ElementDoesntExistException, EmptyCollectionException, UnknownPathException {
+        return this.cursor.getTopology().getShortest("r00", "exterior", heuristic);
+    }
+
+    /**
+     * Metodo que obtem a heuristica do dano minimo ate ao exterior, a partir dos marcos
+     * do mapa, que servem para qualquer chegada
+     *
+     * @return heuristica da distancia ate ao exterior
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public Heuristic exitHeuristic() throws ElementDoesntExistException, EmptyCollectionException {
+        return this.cursor.getTopology().exitHeuristic();
     }
 
     /**
@@ -209,17 +312,113 @@ public class Map implements MapInterface {
      * @throws UnknownPathException
      */
     public int getShortestCost() throws ElementDoesntExistException, InvalidOperationException, EmptyCollectionException, UnknownPathException {
-        ArrayUnorderedList<String> ways = getShortest();
-        int cost = 0;
-        String next, current;
-
-        for (int i = 0; i < ways.size() - 1; i++) {
-            current = ways.get(i);
-            next = ways.get(i + 1);
-            cost += this.map.getEdgeWeight(current, next);
-        }
+        return getShortestCost("r00");
+    }
+
+    /**
+     * Metodo que obtem o dano minimo possivel desde uma divisao ate ao exterior, lido da
+     * tabela das distancias ate ao exterior, pelo que pode ser repetido apos cada movimento
+     * sem nenhuma pesquisa
+     *
+     * @param room divisao de partida
+     * @return custo minimo possivel
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException
+     */
+    public int getShortestCost(String room) throws ElementDoesntExistException, EmptyCollectionException, UnknownPathException {
+        return (int) getDistanceToExit(room);
+    }
+
+    /**
+     * Metodo que obtem a tabela das distancias de todas as divisoes ate ao exterior,
+     * calculada com uma unica pesquisa a partir do exterior sobre as ligacoes de entrada.
+     * A tabela e calculada uma unica vez e partilhada por todos os jogos sobre o mesmo mapa
+     *
+     * @return tabela com o dano minimo e a divisao seguinte de cada divisao ate ao exterior
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public ShortestPathTree getExitTable() throws ElementDoesntExistException, EmptyCollectionException {
+        return this.cursor.getTopology().getExitTable();
+    }
 
-        return cost;
+    /**
+     * Metodo que obtem o dano minimo desde uma divisao ate ao exterior
+     *
+     * @param room divisao de partida
+     * @return dano minimo ate ao exterior
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException se a divisao nao tiver saida
+     */
+    public double getDistanceToExit(String room) throws ElementDoesntExistException, EmptyCollectionException, UnknownPathException {
+        return this.cursor.getTopology().getDistanceToExit(room);
+    }
+
+    /**
+     * Metodo que obtem a melhor divisao para onde o jogador se pode mover a partir
+     * da divisao atual, no menor caminho ate ao exterior
+     *
+     * @return a divisao seguinte
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException se a divisao atual nao tiver saida
+     */
+    public String getBestMove() throws ElementDoesntExistException, EmptyCollectionException, UnknownPathException {
+        return this.cursor.getBestMove();
+    }
+
+    /**
+     * Metodo que obtem a tabela dos menores caminhos entre todas as divisoes.
+     * A tabela e calculada na primeira utilizacao e partilhada por todos os jogos sobre o mesmo mapa
+     *
+     * @return tabela dos menores caminhos entre todas as divisoes
+     * @throws InvalidOperationException se o mapa for demasiado grande para a tabela
+     */
+    public AllPairsShortestPaths getAllPairs() throws InvalidOperationException {
+        return this.cursor.getTopology().getAllPairs();
+    }
+
+    /**
+     * Metodo que obtem o dano minimo entre duas divisoes, a partir da tabela de todos os pares
+     *
+     * @param from divisao de partida
+     * @param to divisao de chegada
+     * @return dano minimo entre as divisoes
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws InvalidOperationException
+     * @throws UnknownPathException se nao existir caminho entre as divisoes
+     */
+    public double getCost(String from, String to) throws ElementDoesntExistException, EmptyCollectionException, InvalidOperationException, UnknownPathException {
+        return this.cursor.getTopology().getCost(from, to);
+    }
+
+    /**
+     * Metodo que obtem o menor caminho entre duas divisoes, a partir da tabela de todos os pares
+     *
+     * @param from divisao de partida
+     * @param to divisao de chegada
+     * @return divisoes do menor caminho
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws InvalidOperationException
+     * @throws UnknownPathException se nao existir caminho entre as divisoes
+     */
+    public ArrayUnorderedList<String> getPath(String from, String to) throws ElementDoesntExistException, EmptyCollectionException, InvalidOperationException, UnknownPathException {
+        return this.cursor.getTopology().getPath(from, to);
+    }
+
+    /**
+     * Metodo que verifica se e possivel chegar ao exterior a partir de todas as divisoes
+     *
+     * @return true se todas as divisoes tiverem saida, false caso contrario
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public boolean isExitReachable() throws ElementDoesntExistException, EmptyCollectionException {
+        return this.cursor.getTopology().isExitReachable();
     }
 
     /**
@@ -230,11 +429,12 @@ public class Map implements MapInterface {
      * @throws ElementDoesntExistException
      */
     public String[] emptyRoom() throws EmptyCollectionException, ElementDoesntExistException {
-        String[] vacantRoom = new String[this.map.size()];
+        MapTopology topology = this.cursor.getTopology();
+        String[] vacantRoom = new String[topology.size()];
         int j = 0;
 
-        for (int i = 0; i < this.map.size(); i++) {
-            String room = this.map.iteratorBFS(i).next();
+        for (int i = 0; i < topology.size(); i++) {
+            String room = topology.getRoom(i);
 
             if (getDamage(room) == 0 && !room.equals("exterior")) {
                 vacantRoom[j] = room;
@@ -254,13 +454,7 @@ public class Map implements MapInterface {
      */
     public int randomShield() throws EmptyCollectionException, ElementDoesntExistException {
         Random random = new Random();
-        int extraLife = 0, damage = 0;
-
-        for (int i = 0; i < this.map.size() - 1; i++) {
-            String room = this.map.iteratorBFS(i).next();
-            String room2 = this.map.iteratorBFS(i + 1).next();
-            damage += this.map.getEdgeWeight(room, room2);
-        }
+        int extraLife = 0, damage = this.cursor.getTopology().getShieldLimit();
 
         do {
             extraLife = random.nextInt(damage);
@@ -0,0 +1,136 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import exceptions.EmptyCollectionException;
+import exceptions.UnknownPathException;
+import structures.ArrayOrderedList;
+
+/**
+ * Classe correspondente a posicao de um jogador num mapa partilhado.
+ *
+ * Guarda apenas uma referencia para o {@link MapTopology} e o identificador da divisao
+ * atual, pelo que cada jogo ocupa poucos bytes e o grafo nunca e copiado. Os movimentos
+ * sao feitos sobre identificadores, e os nomes so sao resolvidos quando pedidos.
+ */
+public final class MapCursor {
+
+    private final MapTopology topology;
+    private int currentRoom;
+
+    /**
+     * Metodo construtor que coloca um jogador na entrada de um mapa
+     *
+     * @param topology mapa a ser jogado
+     */
+    public MapCursor(MapTopology topology) {
+        this.topology = topology;
+        this.currentRoom = topology.getEntranceId();
+    }
+
+    /**
+     * Metodo que obtem o mapa a ser jogado
+     *
+     * @return o mapa
+     */
+    public MapTopology getTopology() {
+        return this.topology;
+    }
+
+    /**
+     * Metodo que obtem a divisao atual onde o jogador se encontra
+     *
+     * @return a divisao atual, ou uma string vazia se o jogador nao estiver numa divisao do mapa
+     */
+    public String getCurrentRoom() {
+        try {
+            return this.currentRoom == -1 ? "" : this.topology.getRoom(this.currentRoom);
+        } catch (ElementDoesntExistException ex) {
+            return "";
+        }
+    }
+
+    /**
+     * Metodo que obtem o identificador da divisao atual onde o jogador se encontra
+     *
+     * @return identificador da divisao atual, ou -1 se o jogador nao estiver numa divisao do mapa
+     */
+    public int getCurrentRoomId() {
+        return this.currentRoom;
+    }
+
+    /**
+     * Metodo que atribui uma divisao a divisao atual onde o jogador se encontra.
+     * Uma divisao que nao exista no mapa deixa o jogador fora do mapa
+     *
+     * @param room divisao a ser atribuida
+     */
+    public void move(String room) {
+        this.currentRoom = this.topology.indexOf(room);
+    }
+
+    /**
+     * Metodo que atribui uma divisao a divisao atual onde o jogador se encontra, pelo seu identificador
+     *
+     * @param room identificador da divisao a ser atribuida
+     */
+    public void move(int room) {
+        this.currentRoom = room;
+    }
+
+    /**
+     * Metodo que obtem as divisoes para onde o jogador se pode mover a partir da divisao atual
+     *
+     * @return a lista de divisoes para onde o jogador se pode mover
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public ArrayOrderedList<String> getNeighbours() throws ElementDoesntExistException, EmptyCollectionException {
+        return this.topology.getNeighbours(getCurrentRoom());
+    }
+
+    /**
+     * Metodo que obtem as divisoes para onde o jogador se pode mover a partir da divisao atual,
+     * a partir das listas calculadas quando o mapa foi lido
+     *
+     * @return lista so de leitura das divisoes vizinhas, ordenada pelo nome
+     * @throws ElementDoesntExistException se o jogador nao estiver numa divisao do mapa
+     */
+    public RoomList getMoves() throws ElementDoesntExistException {
+        return this.topology.getMoves(this.currentRoom);
+    }
+
+    /**
+     * Método que obtem o dano da ligacao entre a divisao atual e a seguinte
+     *
+     * @param nextRoom divisao seguinte a atual
+     * @return dano dessa mesma divisao
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public int getDamage(String nextRoom) throws ElementDoesntExistException, EmptyCollectionException {
+        return this.topology.getDamage(getCurrentRoom(), nextRoom);
+    }
+
+    /**
+     * Método que obtem o dano da ligacao entre a divisao atual e a seguinte, pelo seu identificador
+     *
+     * @param nextRoom identificador da divisao seguinte a atual
+     * @return dano da ligacao, ou 0 se nao existir
+     */
+    public int getDamage(int nextRoom) {
+        return this.topology.getDamage(this.currentRoom, nextRoom);
+    }
+
+    /**
+     * Metodo que obtem a melhor divisao para onde o jogador se pode mover a partir
+     * da divisao atual, no menor caminho ate ao exterior
+     *
+     * @return a divisao seguinte
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException se a divisao atual nao tiver saida
+     */
+    public String getBestMove() throws ElementDoesntExistException, EmptyCollectionException, UnknownPathException {
+        return this.topology.getNextMoveToExit(getCurrentRoom());
+    }
+}
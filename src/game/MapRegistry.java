@@ -0,0 +1,371 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import exceptions.EmptyCollectionException;
+import exceptions.InvalidOperationException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe que guarda os mapas ja lidos, para que varios jogos sobre o mesmo ficheiro
+ * partilhem um unico grafo em vez de o lerem de novo.
+ *
+ * Cada mapa e identificado pelo path absoluto e pela data de modificacao do ficheiro,
+ * pelo que um ficheiro alterado volta a ser lido. Quando a memoria estimada dos mapas
+ * guardados passa o limite, sao descartados os que foram usados ha mais tempo. A memoria
+ * de cada mapa inclui as tabelas que calcula na primeira utilizacao, como a de todos os
+ * pares de divisoes, e volta a ser medida sempre que uma e guardada.
+ * Os mapas sao guardados como {@link MapTopology}, que nao muda depois de lido, e cada
+ * jogo recebe um {@link Map} novo com a sua propria divisao atual.
+ *
+ * Quando um mapa e lido, a tabela das distancias ate ao exterior e as suas
+ * {@link PlayabilityReport} sao criadas logo, antes de ser guardado, para que o inicio de
+ * um jogo nunca espere por uma pesquisa. Os jogos simulados das estimativas nao sao
+ * jogados na leitura: so correm, em segundo plano, quando alguma estimativa e pedida.
+ * Cada mapa e lido e analisado por um unico pedido de cada vez: os pedidos que chegam
+ * durante a leitura esperam por ela em vez de lerem o ficheiro outra vez.
+ */
+public class MapRegistry {
+
+    /**
+     * Limite de memoria por omissao, em bytes
+     */
+    public static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+    private static final MapRegistry DEFAULT = new MapRegistry(DEFAULT_CAPACITY);
+
+    private final long capacity;
+    private final LinkedHashMap<String, Entry> entries;
+    private final HashMap<String, Loading> loading;
+    private long usedBytes;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Metodo construtor que cria um registo vazio
+     *
+     * @param capacity limite de memoria dos mapas guardados, em bytes
+     */
+    public MapRegistry(long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity can't be negative.");
+        }
+
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.loading = new HashMap<>();
+        this.usedBytes = 0;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Metodo que obtem o registo partilhado por todos os jogos
+     *
+     * @return o registo por omissao
+     */
+    public static MapRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Metodo que obtem um novo jogo sobre um mapa, lendo o ficheiro apenas se
+     * ainda nao estiver guardado ou se tiver sido alterado
+     *
+     * @param path path do mapa, em JSON ou no formato binario
+     * @return mapa com a estrutura partilhada e a divisao atual na entrada
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws IOException se nao for possivel ler o ficheiro
+     * @throws ElementDoesntExistException
+     * @throws InvalidOperationException
+     * @throws EmptyCollectionException
+     */
+    public Map get(String path) throws IOException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException {
+        return new Map(getTopology(path));
+    }
+
+    /**
+     * Metodo que obtem a estrutura partilhada de um mapa, lendo o ficheiro apenas se
+     * ainda nao estiver guardado ou se tiver sido alterado
+     *
+     * @param path path do mapa, em JSON ou no formato binario
+     * @return estrutura do mapa
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws IOException se nao for possivel ler o ficheiro
+     * @throws ElementDoesntExistException
+     * @throws InvalidOperationException
+     * @throws EmptyCollectionException
+     */
+    public MapTopology getTopology(String path) throws IOException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException {
+        Path file = Paths.get(path).toAbsolutePath().normalize();
+        String key = file.toString();
+        long modified;
+
+        try {
+            modified = Files.getLastModifiedTime(file).toMillis();
+        } catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(path);
+        }
+
+        Loading loading;
+        boolean owner = false;
+
+        synchronized (this) {
+            Entry entry = this.entries.get(key);
+
+            if (entry != null && entry.modified == modified) {
+                this.hits.increment();
+                return entry.topology;
+            }
+
+            //quem chega enquanto o mapa esta a ser lido espera pela mesma leitura
+            loading = this.loading.get(key);
+
+            if (loading != null && loading.modified == modified) {
+                this.hits.increment();
+            } else {
+                loading = new Loading(modified, new FutureTask<>(() -> load(path)));
+                this.loading.put(key, loading);
+                this.misses.increment();
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            return await(loading.task);
+        }
+
+        //a leitura e feita fora do lock para nao bloquear os pedidos de outros mapas
+        try {
+            loading.task.run();
+            MapTopology topology = await(loading.task);
+            store(key, new Entry(topology, modified));
+            return topology;
+        } finally {
+            synchronized (this) {
+                if (this.loading.get(key) == loading) {
+                    this.loading.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Le o mapa e cria as analises de jogabilidade, sem jogar os jogos simulados
+     */
+    private static MapTopology load(String path) throws IOException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException {
+        MapTopology topology = MapTopology.read(path);
+        topology.getPlayability(1);
+        return topology;
+    }
+
+    /**
+     * Espera pela leitura de um mapa e lanca a excecao da leitura, se tiver falhado
+     */
+    private static MapTopology await(FutureTask<MapTopology> task) throws IOException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException {
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the map to be read.");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ElementDoesntExistException) {
+                throw (ElementDoesntExistException) cause;
+            } else if (cause instanceof InvalidOperationException) {
+                throw (InvalidOperationException) cause;
+            } else if (cause instanceof EmptyCollectionException) {
+                throw (EmptyCollectionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw (Error) cause;
+        }
+    }
+
+    /**
+     * Guarda um mapa lido, substituindo uma versao antiga do mesmo ficheiro
+     */
+    private synchronized void store(String key, Entry loaded) {
+        Entry current = this.entries.get(key);
+
+        if (current != null && current.modified == loaded.modified) {
+            return;
+        }
+
+        if (current != null) {
+            this.entries.remove(key);
+            this.usedBytes -= current.bytes;
+        }
+
+        //as tabelas calculadas depois de guardar o mapa voltam a medir a entrada
+        loaded.topology.onResize(() -> reweigh(key, loaded));
+        loaded.bytes = loaded.topology.memoryBytes();
+
+        if (loaded.bytes <= this.capacity) {
+            this.entries.put(key, loaded);
+            this.usedBytes += loaded.bytes;
+            evict();
+        }
+    }
+
+    /**
+     * Volta a medir um mapa guardado depois de calcular uma tabela, descartando mapas se a
+     * memoria passar o limite. Um mapa que ja foi descartado ou substituido e ignorado
+     */
+    private synchronized void reweigh(String key, Entry entry) {
+        if (this.entries.get(key) != entry) {
+            return;
+        }
+
+        long bytes = entry.topology.memoryBytes();
+        this.usedBytes += bytes - entry.bytes;
+        entry.bytes = bytes;
+
+        if (bytes > this.capacity) {
+            this.entries.remove(key);
+            this.usedBytes -= bytes;
+            this.evictions.increment();
+        } else {
+            evict();
+        }
+    }
+
+    /**
+     * Metodo que obtem a analise de jogabilidade de um mapa para uma dificuldade
+     *
+     * @param path path do mapa, em JSON ou no formato binario
+     * @param difficulty dificuldade do jogo
+     * @return analise de jogabilidade
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws IOException se nao for possivel ler o ficheiro
+     * @throws ElementDoesntExistException
+     * @throws InvalidOperationException
+     * @throws EmptyCollectionException
+     */
+    public PlayabilityReport getPlayability(String path, int difficulty) throws IOException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException {
+        return getTopology(path).getPlayability(difficulty);
+    }
+
+    /**
+     * Descarta os mapas usados ha mais tempo ate a memoria ficar dentro do limite
+     */
+    private void evict() {
+        Iterator<Entry> iterator = this.entries.values().iterator();
+
+        while (this.usedBytes > this.capacity && iterator.hasNext()) {
+            this.usedBytes -= iterator.next().bytes;
+            iterator.remove();
+            this.evictions.increment();
+        }
+    }
+
+    /**
+     * Metodo que descarta todos os mapas guardados
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.usedBytes = 0;
+    }
+
+    /**
+     * Metodo que obtem o numero de mapas guardados
+     *
+     * @return numero de mapas
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Metodo que obtem a memoria estimada dos mapas guardados
+     *
+     * @return memoria em bytes
+     */
+    public synchronized long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * Metodo que obtem o limite de memoria dos mapas guardados
+     *
+     * @return limite em bytes
+     */
+    public long getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Metodo que obtem o numero de pedidos servidos sem ler o ficheiro, incluindo os que
+     * esperaram pela leitura de outro pedido
+     *
+     * @return numero de pedidos
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Metodo que obtem o numero de pedidos que obrigaram a ler o ficheiro. Os pedidos
+     * que esperaram pela leitura de outro pedido nao sao contados
+     *
+     * @return numero de pedidos
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Metodo que obtem o numero de mapas descartados por falta de memoria
+     *
+     * @return numero de mapas descartados
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Mapa guardado, com a data de modificacao do ficheiro e a memoria estimada
+     */
+    private static final class Entry {
+        private final MapTopology topology;
+        private final long modified;
+        private long bytes;
+
+        private Entry(MapTopology topology, long modified) {
+            this.topology = topology;
+            this.modified = modified;
+        }
+    }
+
+    /**
+     * Leitura de um mapa em curso, com a data de modificacao do ficheiro lido
+     */
+    private static final class Loading {
+        private final long modified;
+        private final FutureTask<MapTopology> task;
+
+        private Loading(long modified, FutureTask<MapTopology> task) {
+            this.modified = modified;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,787 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import exceptions.EmptyCollectionException;
+import exceptions.InvalidOperationException;
+import exceptions.UnknownPathException;
+import structures.AllPairsShortestPaths;
+import structures.GraphStorage;
+import structures.ArrayOrderedList;
+import structures.ArrayUnorderedList;
+import structures.Heuristic;
+import structures.Landmarks;
+import structures.Network;
+import structures.PathResult;
+import structures.ShortestPathTree;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Classe correspondente a estrutura de um mapa ja lido: o nome, os pontos de vida
+ * iniciais, a entrada e o grafo das divisoes.
+ *
+ * A estrutura nao muda depois de criada, pelo que pode ser partilhada por qualquer
+ * numero de jogos em threads diferentes. O estado de cada jogo fica num {@link MapCursor}.
+ * As tabelas de menores caminhos sao calculadas na primeira utilizacao e guardadas, e
+ * {@link #memoryBytes()} conta-as a partir desse momento.
+ */
+public final class MapTopology {
+
+    /**
+     * Identificador do exterior, que e sempre a primeira divisao do grafo
+     */
+    public static final int EXTERIOR = 0;
+
+    /**
+     * Numero de marcos usados pelas pesquisas A*
+     */
+    public static final int LANDMARKS = 4;
+
+    private final String name;
+    private final int points;
+    private final String entrance;
+    private final Network<String> network;
+    private final String[] names;
+    private final RoomList[] moves;
+    private volatile ShortestPathTree exitTable;
+    private volatile AllPairsShortestPaths allPairs;
+    private volatile Landmarks landmarks;
+    private volatile PlayabilityReport[] playability;
+    private volatile Runnable resizeListener;
+
+    private MapTopology(String name, int points, String entrance, Network<String> network) {
+        //as listas de vizinhos so custam O(V + E) se o grafo estiver em linhas comprimidas
+        if (network.getStorage() != GraphStorage.SPARSE) {
+            throw new IllegalArgumentException("The map graph must use sparse storage.");
+        }
+
+        this.name = name;
+        this.points = points;
+        this.entrance = entrance;
+        this.network = network;
+        this.names = new String[network.size()];
+        this.moves = new RoomList[network.size()];
+
+        try {
+            for (int i = 0; i < this.names.length; i++) {
+                this.names[i] = network.getVertex(i);
+            }
+
+            buildMoves();
+        } catch (ElementDoesntExistException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Calcula uma unica vez as divisoes vizinhas de cada divisao, ordenadas pelo nome,
+     * num unico array de identificadores com um bloco por divisao. Como o grafo esta
+     * sempre em linhas comprimidas, cada divisao custa O(d log d), com d o numero de
+     * vizinhos, e todo o mapa O(V + E log E)
+     */
+    private void buildMoves() throws ElementDoesntExistException {
+        int[][] neighbours = new int[this.names.length][];
+        int total = 0;
+
+        for (int i = 0; i < this.names.length; i++) {
+            neighbours[i] = this.network.getNeighbourIndices(i);
+            total += neighbours[i].length;
+        }
+
+        int[] ids = new int[total];
+        int position = 0;
+
+        for (int i = 0; i < this.names.length; i++) {
+            Integer[] sorted = new Integer[neighbours[i].length];
+
+            for (int j = 0; j < sorted.length; j++) {
+                sorted[j] = neighbours[i][j];
+            }
+
+            //a ordenacao e estavel, tal como a insercao numa lista ordenada
+            Arrays.sort(sorted, (a, b) -> this.names[a].compareTo(this.names[b]));
+
+            for (int j = 0; j < sorted.length; j++) {
+                ids[position + j] = sorted[j];
+            }
+
+            this.moves[i] = new RoomList(this.names, ids, position, position + sorted.length);
+            position += sorted.length;
+        }
+    }
+
+    /**
+     * Metodo que cria um mapa vazio, apenas com o exterior
+     *
+     * @return o mapa vazio
+     */
+    public static MapTopology empty() {
+        Network<String> network = new Network<>(String.class, new String[]{"exterior"}, new int[2], new int[0], new double[0]);
+
+        return new MapTopology("", 0, null, network);
+    }
+
+    /**
+     * Metodo que le um mapa em JSON, ou no formato binario se o path terminar em {@value BinaryMapFile#EXTENSION}
+     *
+     * @param path path do mapa
+     * @return o mapa lido
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws IOException se nao for possivel ler o ficheiro
+     * @throws ElementDoesntExistException se uma ligacao apontar para uma divisao que nao existe
+     * @throws InvalidOperationException
+     * @throws EmptyCollectionException
+     */
+    public static MapTopology read(String path) throws IOException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException {
+        return BinaryMapFile.isBinary(path) ? readBinary(path) : readJson(path);
+    }
+
+    /**
+     * Método que faz a leitura de um mapa do tipo JSON. As ligacoes sao juntas em arrays
+     * primitivos durante a leitura e o grafo e criado de uma vez no formato de linhas
+     * comprimidas, como no formato binario, pelo que a memoria e O(V + E)
+     *
+     * @param path path do mapa
+     * @return o mapa lido
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws ElementDoesntExistException se uma ligacao apontar para uma divisao que nao existe
+     * @throws InvalidOperationException
+     * @throws EmptyCollectionException
+     */
+    public static MapTopology readJson(String path) throws FileNotFoundException, EmptyCollectionException, ElementDoesntExistException, InvalidOperationException {
+        JsonMapReader data = JsonMapReader.read(path);
+        String[] vertices = new String[data.getRoomCount() + 1];
+        int[] vertexOf = new int[data.getNameCount()];
+        int entranceId = data.getNameId("entrada");
+        int exteriorId = data.getNameId("exterior");
+        String entrance = null;
+
+        Arrays.fill(vertexOf, -1);
+        vertices[EXTERIOR] = "exterior";
+
+        if (exteriorId != -1) {
+            vertexOf[exteriorId] = EXTERIOR;
+        }
+
+        //uma divisao repetida fica com a posicao da ultima ocorrencia, como no indice do grafo
+        for (int i = 0; i < data.getRoomCount(); i++) {
+            vertices[i + 1] = data.getRoom(i);
+            vertexOf[data.getRoomId(i)] = i + 1;
+        }
+
+        int exterior = exteriorId == -1 ? EXTERIOR : vertexOf[exteriorId];
+        int[] sources = new int[data.getLinkCount()];
+        int[] targets = new int[data.getLinkCount()];
+        double[] weights = new double[data.getLinkCount()];
+        int edges = 0;
+
+        //as ligacoes sao resolvidas pelos identificadores dos nomes, e as que tocam no exterior nao tem dano
+        for (int i = 0; i < data.getLinkCount(); i++) {
+            int room = data.getLinkFrom(i);
+            int target = data.getLinkToId(i);
+
+            if (target == entranceId) {
+                entrance = data.getRoom(room);
+            } else {
+                int from = vertexOf[data.getRoomId(room)];
+                int to = vertexOf[target];
+
+                if (to == -1) {
+                    throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
+                }
+
+                boolean exit = from == exterior || to == exterior || from == EXTERIOR || to == EXTERIOR;
+                sources[edges] = from;
+                targets[edges] = to;
+                weights[edges] = exit ? 0 : data.getLinkDamage(i);
+                edges++;
+            }
+        }
+
+        return new MapTopology(data.getName(), data.getPoints(), entrance, compressedRows(vertices, sources, targets, weights, edges));
+    }
+
+    /**
+     * Cria o grafo a partir das ligacoes pela ordem do ficheiro. As ligacoes sao agrupadas
+     * pela divisao de partida com uma contagem e ordenadas dentro de cada grupo pela
+     * divisao de chegada; uma ligacao repetida fica com o dano da ultima ocorrencia, como
+     * quando era inserida no grafo
+     */
+    private static Network<String> compressedRows(String[] vertices, int[] sources, int[] targets, double[] weights, int edges) {
+        int count = vertices.length;
+        int[] offsets = new int[count + 1];
+        long[] keys = new long[edges];
+
+        for (int i = 0; i < edges; i++) {
+            offsets[sources[i] + 1]++;
+        }
+
+        for (int v = 0; v < count; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] next = Arrays.copyOf(offsets, count);
+
+        //cada chave tem a divisao de chegada e a posicao da ligacao, para desempatar pela ultima
+        for (int i = 0; i < edges; i++) {
+            keys[next[sources[i]]++] = (long) targets[i] << 32 | i;
+        }
+
+        int[] rowTargets = new int[edges];
+        double[] rowWeights = new double[edges];
+        int position = 0;
+
+        for (int v = 0; v < count; v++) {
+            int start = offsets[v];
+            int end = offsets[v + 1];
+
+            Arrays.sort(keys, start, end);
+            offsets[v] = position;
+
+            for (int k = start; k < end; k++) {
+                int target = (int) (keys[k] >>> 32);
+
+                if (k + 1 < end && (int) (keys[k + 1] >>> 32) == target) {
+                    continue;
+                }
+
+                rowTargets[position] = target;
+                rowWeights[position] = weights[(int) keys[k]];
+                position++;
+            }
+        }
+
+        offsets[count] = position;
+
+        return new Network<>(String.class, vertices, offsets, rowTargets, rowWeights);
+    }
+
+    /**
+     * Método que faz a leitura de um mapa no formato binario, escrito por {@link #writeBinary(String)}.
+     * O grafo e construido diretamente a partir do ficheiro, sem passar pelo JSON
+     *
+     * @param path path do mapa
+     * @return o mapa lido
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws IOException se o ficheiro nao for um mapa binario valido
+     */
+    public static MapTopology readBinary(String path) throws IOException {
+        BinaryMapFile data = BinaryMapFile.read(path);
+
+        return new MapTopology(data.getName(), data.getPoints(), data.getEntrance(), data.getNetwork());
+    }
+
+    /**
+     * Método que exporta o mapa para o formato binario, para ser carregado
+     * mais rapidamente com {@link #readBinary(String)}
+     *
+     * @param path path do ficheiro a escrever
+     * @throws IOException se nao for possivel escrever o ficheiro
+     * @throws ElementDoesntExistException
+     */
+    public void writeBinary(String path) throws IOException, ElementDoesntExistException {
+        BinaryMapFile.write(path, this.name, this.points, this.entrance, this.network);
+    }
+
+    /**
+     * Metodo que obtem o nome do mapa
+     *
+     * @return nome do mapa
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Metodo que obtem os pontos de vida iniciais do mapa
+     *
+     * @return pontos de vida
+     */
+    public int getPoints() {
+        return this.points;
+    }
+
+    /**
+     * Metodo que obtem a divisao ligada a entrada
+     *
+     * @return a divisao de entrada, ou null se nao existir
+     */
+    public String getEntrance() {
+        return this.entrance;
+    }
+
+    /**
+     * Metodo que obtem o numero de divisoes, incluindo o exterior
+     *
+     * @return numero de divisoes
+     */
+    public int size() {
+        return this.network.size();
+    }
+
+    /**
+     * Metodo que obtem uma divisao pela sua posicao no grafo
+     *
+     * @param index posicao da divisao
+     * @return nome da divisao
+     * @throws ElementDoesntExistException se a posicao nao existir
+     */
+    public String getRoom(int index) throws ElementDoesntExistException {
+        if (!isRoom(index)) {
+            throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
+        }
+
+        return this.names[index];
+    }
+
+    /**
+     * Metodo que obtem o identificador de uma divisao, a usar nos metodos que recebem inteiros
+     *
+     * @param room nome da divisao
+     * @return identificador da divisao
+     * @throws ElementDoesntExistException se a divisao nao existir
+     */
+    public int getRoomId(String room) throws ElementDoesntExistException {
+        int id = this.network.indexOf(room);
+
+        if (id == -1) {
+            throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
+        }
+
+        return id;
+    }
+
+    /**
+     * Metodo que obtem o identificador de uma divisao, sem lancar excecao
+     *
+     * @param room nome da divisao
+     * @return identificador da divisao, ou -1 se nao existir
+     */
+    public int indexOf(String room) {
+        return this.network.indexOf(room);
+    }
+
+    /**
+     * Metodo que verifica se um identificador corresponde a uma divisao do mapa
+     *
+     * @param id identificador
+     * @return true se a divisao existir, false caso contrario
+     */
+    public boolean isRoom(int id) {
+        return id >= 0 && id < this.names.length;
+    }
+
+    /**
+     * Metodo que obtem o identificador da divisao ligada a entrada
+     *
+     * @return identificador da entrada, ou -1 se nao existir
+     */
+    public int getEntranceId() {
+        return this.entrance == null ? -1 : this.network.indexOf(this.entrance);
+    }
+
+    /**
+     * Metodo que obtem o dano da ligacao entre duas divisoes, pelos seus identificadores
+     *
+     * @param from identificador da divisao de partida
+     * @param to identificador da divisao de chegada
+     * @return dano da ligacao, ou 0 se nao existir
+     */
+    public int getDamage(int from, int to) {
+        if (!isRoom(from) || !isRoom(to)) {
+            return 0;
+        }
+
+        return (int) this.network.getEdgeWeight(from, to);
+    }
+
+    /**
+     * Metodo que obtem o dano minimo desde uma divisao ate ao exterior, pelo seu identificador
+     *
+     * @param room identificador da divisao de partida
+     * @return dano minimo ate ao exterior, ou infinito se a divisao nao tiver saida
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public double getDistanceToExit(int room) throws ElementDoesntExistException, EmptyCollectionException {
+        return getExitTable().getDistance(room);
+    }
+
+    /**
+     * Metodo que obtem a divisao seguinte no menor caminho ate ao exterior, pelo seu identificador
+     *
+     * @param room identificador da divisao de partida
+     * @return identificador da divisao seguinte, ou -1 se a divisao nao tiver saida
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public int getNextMoveToExit(int room) throws ElementDoesntExistException, EmptyCollectionException {
+        return getExitTable().getPrevious(room);
+    }
+
+    /**
+     * Metodo que obtem as divisoes onde o escudo pode ser colocado no inicio de um jogo:
+     * as divisoes, alem do exterior, cuja ligacao a partir da divisao inicial nao tem dano
+     *
+     * @param from identificador da divisao inicial
+     * @return identificadores das divisoes possiveis
+     */
+    public int[] getShieldRooms(int from) {
+        int[] rooms = new int[this.names.length];
+        int count = 0;
+
+        for (int i = 0; i < this.names.length; i++) {
+            if (i != EXTERIOR && getDamage(from, i) == 0) {
+                rooms[count++] = i;
+            }
+        }
+
+        return Arrays.copyOf(rooms, count);
+    }
+
+    /**
+     * Metodo que obtem o limite dos pontos do escudo: a soma dos danos das ligacoes
+     * entre divisoes com identificadores consecutivos. O escudo vale entre 1 e o limite
+     * menos 1
+     *
+     * @return limite dos pontos do escudo
+     */
+    public int getShieldLimit() {
+        int damage = 0;
+
+        for (int i = 0; i < this.names.length - 1; i++) {
+            damage += getDamage(i, i + 1);
+        }
+
+        return damage;
+    }
+
+    /**
+     * Metodo que obtem a analise de jogabilidade do mapa para uma dificuldade. As analises
+     * de todas as dificuldades sao criadas na primeira utilizacao, normalmente quando o
+     * mapa e guardado no {@link MapRegistry}, e partilhadas por todos os jogos. Criar as
+     * analises so le a tabela das distancias ate ao exterior; os jogos simulados so sao
+     * jogados quando alguma estimativa for pedida
+     *
+     * @param difficulty dificuldade do jogo, entre 1 e {@value PlayabilityReport#MAX_DIFFICULTY}
+     * @return analise de jogabilidade
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public PlayabilityReport getPlayability(int difficulty) throws ElementDoesntExistException, EmptyCollectionException {
+        if (difficulty < 1 || difficulty > PlayabilityReport.MAX_DIFFICULTY) {
+            throw new IllegalArgumentException("The difficulty must be between 1 and " + PlayabilityReport.MAX_DIFFICULTY + ".");
+        }
+
+        PlayabilityReport[] reports = this.playability;
+
+        //duas threads podem calcular as analises ao mesmo tempo, mas o resultado e igual
+        if (reports == null) {
+            reports = new PlayabilityReport[PlayabilityReport.MAX_DIFFICULTY];
+
+            for (int i = 0; i < reports.length; i++) {
+                reports[i] = PlayabilityReport.analyse(this, i + 1);
+            }
+
+            this.playability = reports;
+            resized();
+        }
+
+        return reports[difficulty - 1];
+    }
+
+    /**
+     * Metodo que obtem as divisoes ligadas a uma divisao, ordenadas pelo nome, sem criar objetos
+     *
+     * @param room identificador da divisao
+     * @return lista so de leitura das divisoes vizinhas
+     * @throws ElementDoesntExistException se a divisao nao existir
+     */
+    public RoomList getMoves(int room) throws ElementDoesntExistException {
+        if (!isRoom(room)) {
+            throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
+        }
+
+        return this.moves[room];
+    }
+
+    /**
+     * Metodo que obtem as divisoes ligadas a uma divisao
+     *
+     * @param room divisao
+     * @return a lista ordenada das divisoes vizinhas
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public ArrayOrderedList<String> getNeighbours(String room) throws ElementDoesntExistException, EmptyCollectionException {
+        return this.network.getNeighbours(room);
+    }
+
+    /**
+     * Metodo que obtem o dano da ligacao entre duas divisoes
+     *
+     * @param from divisao de partida
+     * @param to divisao de chegada
+     * @return dano da ligacao, ou 0 se nao existir
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public int getDamage(String from, String to) throws ElementDoesntExistException, EmptyCollectionException {
+        return (int) this.network.getEdgeWeight(from, to);
+    }
+
+    /**
+     * Metodo que obtem o menor caminho entre duas divisoes
+     *
+     * @param from divisao de partida
+     * @param to divisao de chegada
+     * @return divisoes do menor caminho
+     * @throws ElementDoesntExistException
+     * @throws InvalidOperationException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException se nao existir caminho entre as divisoes
+     */
+    public ArrayUnorderedList<String> getShortest(String from, String to) throws ElementDoesntExistException, InvalidOperationException, EmptyCollectionException, UnknownPathException {
+        return this.network.shortestPathWeight(from, to);
+    }
+
+    /**
+     * Metodo que procura o menor caminho entre duas divisoes com o algoritmo A*
+     *
+     * @param from divisao de partida
+     * @param to divisao de chegada
+     * @param heuristic estimativa do dano minimo de cada divisao ate a chegada
+     * @return menor caminho, o seu custo e o numero de divisoes expandidas
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException se nao existir caminho entre as divisoes
+     */
+    public PathResult<String> getShortest(String from, String to, Heuristic heuristic) throws ElementDoesntExistException, EmptyCollectionException, UnknownPathException {
+        return this.network.aStar(from, to, heuristic);
+    }
+
+    /**
+     * Metodo que obtem a heuristica da distancia ate ao exterior, a partir dos marcos do mapa
+     *
+     * @return heuristica da distancia ate ao exterior
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public Heuristic exitHeuristic() throws ElementDoesntExistException, EmptyCollectionException {
+        return landmarkHeuristic("exterior");
+    }
+
+    /**
+     * Metodo que obtem a heuristica da distancia ate uma divisao, a partir dos marcos do mapa.
+     * Como as divisoes sem inimigos custam 0, o numero de divisoes vezes o menor custo seria
+     * sempre 0; os marcos dao um limite inferior do dano que serve para qualquer chegada
+     *
+     * @param to divisao de chegada
+     * @return heuristica da distancia ate a divisao
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public Heuristic landmarkHeuristic(String to) throws ElementDoesntExistException, EmptyCollectionException {
+        return getLandmarks().towards(this.network.getIndex(to));
+    }
+
+    /**
+     * Metodo que obtem os marcos do mapa: as distancias de e para {@value #LANDMARKS} divisoes,
+     * calculadas com duas pesquisas por marco na primeira utilizacao e partilhadas por todas
+     * as pesquisas A*, para qualquer chegada
+     *
+     * @return marcos do mapa
+     * @throws EmptyCollectionException
+     */
+    public Landmarks getLandmarks() throws EmptyCollectionException {
+        Landmarks table = this.landmarks;
+
+        //duas threads podem calcular os marcos ao mesmo tempo, mas o resultado e igual
+        if (table == null) {
+            table = this.network.landmarks(LANDMARKS);
+            this.landmarks = table;
+            resized();
+        }
+
+        return table;
+    }
+
+    /**
+     * Metodo que obtem a tabela das distancias de todas as divisoes ate ao exterior,
+     * calculada com uma unica pesquisa a partir do exterior sobre as ligacoes de entrada
+     *
+     * @return tabela com o dano minimo e a divisao seguinte de cada divisao ate ao exterior
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public ShortestPathTree getExitTable() throws ElementDoesntExistException, EmptyCollectionException {
+        ShortestPathTree table = this.exitTable;
+
+        //duas threads podem calcular a tabela ao mesmo tempo, mas o resultado e igual
+        if (table == null) {
+            table = this.network.reverseShortestPathTree("exterior");
+            this.exitTable = table;
+            resized();
+        }
+
+        return table;
+    }
+
+    /**
+     * Metodo que obtem o dano minimo desde uma divisao ate ao exterior
+     *
+     * @param room divisao de partida
+     * @return dano minimo ate ao exterior
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException se a divisao nao tiver saida
+     */
+    public double getDistanceToExit(String room) throws ElementDoesntExistException, EmptyCollectionException, UnknownPathException {
+        ShortestPathTree table = getExitTable();
+        int index = this.network.getIndex(room);
+
+        if (!table.hasPathTo(index)) {
+            throw new UnknownPathException("Path doesn't exist");
+        }
+
+        return table.getDistance(index);
+    }
+
+    /**
+     * Metodo que obtem a divisao seguinte no menor caminho desde uma divisao ate ao exterior
+     *
+     * @param room divisao de partida
+     * @return a divisao seguinte
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws UnknownPathException se a divisao nao tiver saida
+     */
+    public String getNextMoveToExit(String room) throws ElementDoesntExistException, EmptyCollectionException, UnknownPathException {
+        int next = getExitTable().getPrevious(this.network.getIndex(room));
+
+        if (next == -1) {
+            throw new UnknownPathException("Path doesn't exist");
+        }
+
+        return this.network.getVertex(next);
+    }
+
+    /**
+     * Metodo que obtem a tabela dos menores caminhos entre todas as divisoes
+     *
+     * @return tabela dos menores caminhos entre todas as divisoes
+     * @throws InvalidOperationException se o mapa for demasiado grande para a tabela
+     */
+    public AllPairsShortestPaths getAllPairs() throws InvalidOperationException {
+        AllPairsShortestPaths table = this.allPairs;
+
+        if (table == null) {
+            table = this.network.allPairsShortestPaths();
+            this.allPairs = table;
+            resized();
+        }
+
+        return table;
+    }
+
+    /**
+     * Metodo que obtem o dano minimo entre duas divisoes, a partir da tabela de todos os pares
+     *
+     * @param from divisao de partida
+     * @param to divisao de chegada
+     * @return dano minimo entre as divisoes
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws InvalidOperationException
+     * @throws UnknownPathException se nao existir caminho entre as divisoes
+     */
+    public double getCost(String from, String to) throws ElementDoesntExistException, EmptyCollectionException, InvalidOperationException, UnknownPathException {
+        double cost = getAllPairs().getDistance(this.network.getIndex(from), this.network.getIndex(to));
+
+        if (cost == Double.POSITIVE_INFINITY) {
+            throw new UnknownPathException("Path doesn't exist");
+        }
+
+        return cost;
+    }
+
+    /**
+     * Metodo que obtem o menor caminho entre duas divisoes, a partir da tabela de todos os pares
+     *
+     * @param from divisao de partida
+     * @param to divisao de chegada
+     * @return divisoes do menor caminho
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     * @throws InvalidOperationException
+     * @throws UnknownPathException se nao existir caminho entre as divisoes
+     */
+    public ArrayUnorderedList<String> getPath(String from, String to) throws ElementDoesntExistException, EmptyCollectionException, InvalidOperationException, UnknownPathException {
+        return this.network.toVertices(getAllPairs().pathTo(this.network.getIndex(from), this.network.getIndex(to)));
+    }
+
+    /**
+     * Metodo que verifica se e possivel chegar ao exterior a partir de todas as divisoes
+     *
+     * @return true se todas as divisoes tiverem saida, false caso contrario
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public boolean isExitReachable() throws ElementDoesntExistException, EmptyCollectionException {
+        return this.network.reachingTo("exterior").isComplete();
+    }
+
+    /**
+     * Define a acao executada sempre que uma tabela e guardada e a memoria ocupada aumenta,
+     * para que quem guarda o mapa o possa voltar a medir
+     */
+    void onResize(Runnable listener) {
+        this.resizeListener = listener;
+    }
+
+    private void resized() {
+        Runnable listener = this.resizeListener;
+
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Metodo que estima a memoria ocupada pelo mapa: o grafo, os nomes das divisoes e as
+     * tabelas ja calculadas
+     *
+     * @return tamanho estimado em bytes
+     */
+    public long memoryBytes() {
+        long bytes = this.network.memoryBytes() + 16 + 8L * this.names.length + 16 + 8L * this.moves.length;
+
+        for (String room : this.names) {
+            bytes += 40 + 2L * room.length();
+        }
+
+        //cada lista de vizinhos tem um objeto e a sua parte do array de identificadores
+        for (RoomList list : this.moves) {
+            bytes += 32 + 4L * list.size();
+        }
+
+        ShortestPathTree exit = this.exitTable;
+        AllPairsShortestPaths pairs = this.allPairs;
+        Landmarks marks = this.landmarks;
+        PlayabilityReport[] reports = this.playability;
+
+        bytes += exit == null ? 0 : exit.memoryBytes();
+        bytes += pairs == null ? 0 : pairs.memoryBytes();
+        bytes += marks == null ? 0 : marks.memoryBytes();
+
+        if (reports != null) {
+            for (PlayabilityReport report : reports) {
+                bytes += report.memoryBytes();
+            }
+        }
+
+        return bytes;
+    }
+}
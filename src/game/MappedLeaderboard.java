@@ -0,0 +1,303 @@
+package game;
+
+import structures.ArrayUnorderedList;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Consulta so de leitura de uma classificacao que nao a carrega em memoria.
+ *
+ * As pontuacoes ate a ultima compactacao sao lidas do {@link ScoreFile} mapeado em memoria,
+ * e apenas as pontuacoes dos registos escritas depois dela, no maximo cerca de
+ * {@value RankedLeaderboard#COMPACT_THRESHOLD} por registo, sao lidas e ordenadas em memoria. As
+ * consultas juntam as duas partes como se fossem uma unica classificacao ordenada: a
+ * pontuacao numa posicao e a posicao de uma pontuacao custam O(log n), e uma pagina
+ * custa O(log n) mais o tamanho da pagina.
+ */
+public class MappedLeaderboard {
+
+    /**
+     * Numero de vezes que o ficheiro binario e criado antes de desistir
+     */
+    private static final int BUILD_ATTEMPTS = 3;
+
+    private final ScoreFile file;
+    private final ScoreEntry[] tail;
+
+    private MappedLeaderboard(ScoreFile file, ScoreEntry[] tail) {
+        this.file = file;
+        this.tail = tail;
+    }
+
+    /**
+     * Metodo que abre uma classificacao para consulta. Se o ficheiro binario nao existir ou
+     * nao corresponder ao ficheiro de classificacao em texto, e criado a partir dele por
+     * {@link ScoreFileBuilder}, com memoria limitada e sem abrir a classificacao. Os ficheiros
+     * da classificacao nunca sao alterados, por isso pode ser aberta enquanto outro programa
+     * a escreve
+     *
+     * @param path path do ficheiro de classificacao em texto
+     * @return a classificacao
+     * @throws IOException se nao for possivel ler os ficheiros, ou se o ficheiro em texto
+     * mudar sempre enquanto o ficheiro binario e criado
+     */
+    public static MappedLeaderboard open(String path) throws IOException {
+        String map = RankedLeaderboard.mapOf(path);
+        ScoreFile file = null;
+
+        if (Files.exists(Paths.get(path))) {
+            file = current(path, map);
+
+            for (int attempt = 0; file == null && attempt < BUILD_ATTEMPTS; attempt++) {
+                build(path, map);
+                file = current(path, map);
+            }
+
+            if (file == null) {
+                throw new IOException("The score file of " + path + " could not be built.");
+            }
+        }
+
+        return new MappedLeaderboard(file, sort(readTail(path, map)));
+    }
+
+    /**
+     * Abre o ficheiro binario se corresponder ao ficheiro em texto
+     */
+    private static ScoreFile current(String path, String map) throws IOException {
+        Path snapshot = Paths.get(path);
+
+        if (!Files.exists(Paths.get(path + ScoreFile.EXTENSION)) || !Files.exists(snapshot)) {
+            return null;
+        }
+
+        try {
+            ScoreFile file = ScoreFile.open(path + ScoreFile.EXTENSION, map);
+            return file.getSnapshotBytes() == Files.size(snapshot) ? file : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Cria o ficheiro binario num ficheiro temporario e troca-o pelo atual, para que quem o
+     * esteja a ler nunca veja um ficheiro a meio
+     */
+    private static void build(String path, String map) throws IOException {
+        Path target = Paths.get(path + ScoreFile.EXTENSION).toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".build");
+
+        try {
+            ScoreFileBuilder.build(path, temporary.toString(), map);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Le as pontuacoes que ainda nao estao no ficheiro em texto. Durante uma compactacao, as
+     * pontuacoes que ela esta a escrever so estao no ficheiro em texto depois de o novo
+     * ficheiro substituir o antigo
+     */
+    private static ScoreEntry[] readTail(String path, String map) throws IOException {
+        ScoreEntry[][] tail = {new ScoreEntry[16]};
+        int[] count = {0};
+        Consumer<ScoreEntry> add = entry -> {
+            if (count[0] == tail[0].length) {
+                tail[0] = Arrays.copyOf(tail[0], count[0] * 2);
+            }
+
+            tail[0][count[0]++] = entry;
+        };
+
+        if (Files.exists(Paths.get(path + ".log.compacting"))) {
+            ScoreLog.read(path + ".log.compacting", map, add);
+        } else if (Files.exists(Paths.get(path + ".log.done")) && Files.exists(Paths.get(path + ".tmp"))) {
+            ScoreLog.read(path + ".log.done", map, add);
+        }
+
+        ScoreLog.read(path + ".log", map, add);
+        return Arrays.copyOf(tail[0], count[0]);
+    }
+
+    private static ScoreEntry[] sort(ScoreEntry[] entries) {
+        Arrays.sort(entries, ScoreEntry.RANKING);
+        return entries;
+    }
+
+    private int fileSize() {
+        return this.file == null ? 0 : this.file.size();
+    }
+
+    /**
+     * Metodo que obtem o numero de pontuacoes
+     *
+     * @return numero de pontuacoes
+     */
+    public int size() {
+        return fileSize() + this.tail.length;
+    }
+
+    /**
+     * Obtem quantas das primeiras k pontuacoes da classificacao estao no ficheiro,
+     * com uma pesquisa binaria sobre as duas partes ordenadas
+     */
+    private int split(int k) {
+        int low = Math.max(0, k - this.tail.length);
+        int high = Math.min(k, fileSize());
+
+        while (low < high) {
+            int i = (low + high) >>> 1;
+
+            if (ScoreEntry.RANKING.compare(this.tail[k - i - 1], this.file.get(i)) > 0) {
+                low = i + 1;
+            } else {
+                high = i;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Metodo que obtem a pontuacao numa posicao da classificacao
+     *
+     * @param rank posicao, a comecar em 1
+     * @return a pontuacao
+     * @throws IndexOutOfBoundsException se a posicao nao existir
+     */
+    public ScoreEntry get(int rank) {
+        if (rank < 1 || rank > size()) {
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", Size: " + size());
+        }
+
+        ScoreEntry[] found = new ScoreEntry[1];
+        walk(rank, 1, entry -> found[0] = entry);
+        return found[0];
+    }
+
+    /**
+     * Metodo que obtem uma pagina da classificacao
+     *
+     * @param from posicao da primeira pontuacao, a comecar em 1
+     * @param count numero de pontuacoes
+     * @return as pontuacoes da pagina, da maior para a menor
+     */
+    public ArrayUnorderedList<ScoreEntry> getPage(int from, int count) {
+        ArrayUnorderedList<ScoreEntry> page = new ArrayUnorderedList<>();
+        walk(from, count, page::addToRear);
+        return page;
+    }
+
+    /**
+     * Percorre as pontuacoes a partir de uma posicao, juntando as duas partes ordenadas
+     */
+    private void walk(int from, int count, Consumer<ScoreEntry> action) {
+        int start = Math.max(0, from - 1);
+
+        if (start >= size()) {
+            return;
+        }
+
+        int i = split(start);
+        int j = start - i;
+
+        for (int k = 0; k < count && (i < fileSize() || j < this.tail.length); k++) {
+            if (j == this.tail.length || (i < fileSize() && ScoreEntry.RANKING.compare(this.file.get(i), this.tail[j]) < 0)) {
+                action.accept(this.file.get(i++));
+            } else {
+                action.accept(this.tail[j++]);
+            }
+        }
+    }
+
+    /**
+     * Metodo que obtem a posicao de uma pontuacao na classificacao
+     *
+     * @param entry pontuacao
+     * @return posicao que a pontuacao ocupa ou ocuparia, a comecar em 1
+     */
+    public int getRank(ScoreEntry entry) {
+        int before = this.file == null ? 0 : this.file.rank(entry);
+        int low = 0;
+        int high = this.tail.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (ScoreEntry.RANKING.compare(this.tail[middle], entry) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return before + low + 1;
+    }
+
+    /**
+     * Metodo que obtem a posicao que uma nova pontuacao ocuparia na classificacao
+     *
+     * @param score pontos
+     * @return posicao, a comecar em 1
+     */
+    public int getRank(int score) {
+        return getRank(new ScoreEntry(null, score, Long.MAX_VALUE));
+    }
+
+    /**
+     * Metodo que obtem a melhor pontuacao de um jogador
+     *
+     * @param player nome do jogador
+     * @return a melhor pontuacao, ou null se o jogador nao tiver pontuacoes
+     */
+    public ScoreEntry getBest(String player) {
+        int index = this.file == null ? -1 : this.file.indexOf(player);
+        ScoreEntry best = index == -1 ? null : this.file.get(index);
+
+        //o registo esta ordenado, pelo que a primeira pontuacao do jogador e a melhor
+        for (ScoreEntry entry : this.tail) {
+            if (entry.getName().equals(player)) {
+                if (best == null || ScoreEntry.RANKING.compare(entry, best) < 0) {
+                    best = entry;
+                }
+
+                break;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Metodo que obtem a posicao da melhor pontuacao de um jogador
+     *
+     * @param player nome do jogador
+     * @return posicao, a comecar em 1, ou -1 se o jogador nao tiver pontuacoes
+     */
+    public int getRank(String player) {
+        ScoreEntry best = getBest(player);
+        return best == null ? -1 : getRank(best);
+    }
+
+    /**
+     * Metodo que escreve uma parte da classificacao, da maior para a menor pontuacao,
+     * sem a copiar toda para memoria
+     *
+     * @param out destino
+     * @param from posicao da primeira pontuacao, a comecar em 1
+     * @param count numero de pontuacoes
+     */
+    public void print(PrintWriter out, int from, int count) {
+        walk(from, count, out::println);
+        out.flush();
+    }
+}
@@ -0,0 +1,72 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import exceptions.EmptyCollectionException;
+
+/**
+ * Estrategias de movimento comuns para o {@link GameSimulator}
+ */
+public final class MovePolicies {
+
+    private MovePolicies() {
+    }
+
+    /**
+     * Metodo que obtem a estrategia que escolhe uma divisao vizinha ao acaso
+     *
+     * @return a estrategia aleatoria
+     */
+    public static MovePolicy randomWalk() {
+        return (map, room, moves, random) -> moves.getId(random.nextInt(moves.size()));
+    }
+
+    /**
+     * Metodo que obtem a estrategia que escolhe a divisao vizinha com menos dano,
+     * sem olhar para mais longe. Os empates sao decididos ao acaso, para o jogador nao
+     * ficar preso entre duas divisoes sem dano, e o exterior e escolhido sempre que estiver ao lado
+     *
+     * @return a estrategia gulosa
+     */
+    public static MovePolicy greedy() {
+        return (map, room, moves, random) -> {
+            int best = -1;
+            int bestDamage = Integer.MAX_VALUE;
+            int ties = 0;
+
+            for (int i = 0; i < moves.size(); i++) {
+                int next = moves.getId(i);
+
+                if (next == MapTopology.EXTERIOR) {
+                    return next;
+                }
+
+                int damage = map.getDamage(room, next);
+
+                if (damage < bestDamage) {
+                    best = next;
+                    bestDamage = damage;
+                    ties = 1;
+                } else if (damage == bestDamage && random.nextInt(++ties) == 0) {
+                    best = next;
+                }
+            }
+
+            return best;
+        };
+    }
+
+    /**
+     * Metodo que obtem a estrategia que segue o caminho com menos dano ate ao exterior
+     *
+     * @return a estrategia do menor caminho
+     */
+    public static MovePolicy shortestPath() {
+        return (map, room, moves, random) -> {
+            try {
+                return map.getNextMoveToExit(room);
+            } catch (ElementDoesntExistException | EmptyCollectionException ex) {
+                return -1;
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Estrategia que escolhe o movimento seguinte de um jogador simulado pelo {@link GameSimulator}.
+ * As estrategias nao guardam estado, pelo que podem ser usadas por varios jogos ao mesmo tempo.
+ */
+public interface MovePolicy {
+    /**
+     * Metodo que escolhe a divisao para onde o jogador se move a seguir
+     *
+     * @param map mapa a ser jogado
+     * @param room identificador da divisao atual
+     * @param moves divisoes para onde o jogador se pode mover, nunca vazia
+     * @param random gerador de numeros aleatorios do jogo
+     * @return identificador da divisao escolhida, ou -1 se o jogador desistir
+     */
+    public int choose(MapTopology map, int room, RoomList moves, SplittableRandom random);
+}
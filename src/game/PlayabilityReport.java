@@ -0,0 +1,312 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import exceptions.EmptyCollectionException;
+import structures.ArrayUnorderedList;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Analise da jogabilidade de um mapa para uma dificuldade: o caminho com menor dano
+ * desde a entrada ate ao exterior, a probabilidade de sobreviver a andar ao acaso,
+ * estimada com jogos simulados em paralelo, e o efeito do escudo sorteado no inicio
+ * de cada jogo.
+ *
+ * O caminho com menor dano, que e tudo o que {@link #isPlayable()} precisa, e lido da tabela
+ * das distancias ate ao exterior quando a analise e criada, normalmente quando o mapa e
+ * guardado no {@link MapRegistry}. Os jogos simulados demoram muito mais, por isso so sao
+ * jogados no pool comum quando alguma estimativa e pedida pela primeira vez, e nunca
+ * atrasam a leitura do mapa nem o inicio de um jogo. {@link #getEstimates()} permite
+ * esperar por eles sem bloquear; os restantes metodos das estimativas esperam pelo fim.
+ */
+public class PlayabilityReport {
+
+    /**
+     * Maior dificuldade do jogo
+     */
+    public static final int MAX_DIFFICULTY = 3;
+
+    /**
+     * Numero de jogos simulados por omissao em cada estimativa
+     */
+    public static final int DEFAULT_GAMES = 10000;
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final MapTopology map;
+    private final int difficulty;
+    private final double minDamage;
+    private final int[] path;
+    private final int games;
+    private CompletableFuture<PlayabilityReport> estimates;
+    private double survival;
+    private double meanScore;
+    private double shieldSurvival;
+    private double shieldMeanScore;
+
+    private PlayabilityReport(MapTopology map, int difficulty, double minDamage, int[] path, int games) {
+        this.map = map;
+        this.difficulty = difficulty;
+        this.minDamage = minDamage;
+        this.path = path;
+        this.games = games;
+    }
+
+    /**
+     * Metodo que analisa um mapa com o numero de jogos por omissao
+     *
+     * @param map mapa a analisar
+     * @param difficulty dificuldade do jogo
+     * @return analise do mapa
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public static PlayabilityReport analyse(MapTopology map, int difficulty) throws ElementDoesntExistException, EmptyCollectionException {
+        return analyse(map, difficulty, DEFAULT_GAMES);
+    }
+
+    /**
+     * Metodo que analisa um mapa. So o caminho com menor dano e calculado logo; os jogos
+     * simulados sao jogados quando alguma estimativa for pedida. As estimativas usam sempre
+     * a mesma semente, pelo que a mesma analise da sempre o mesmo resultado
+     *
+     * @param map mapa a analisar
+     * @param difficulty dificuldade do jogo
+     * @param games numero de jogos simulados em cada estimativa
+     * @return analise do mapa
+     * @throws ElementDoesntExistException
+     * @throws EmptyCollectionException
+     */
+    public static PlayabilityReport analyse(MapTopology map, int difficulty, int games) throws ElementDoesntExistException, EmptyCollectionException {
+        int entrance = map.getEntranceId();
+
+        if (!map.isRoom(entrance)) {
+            return new PlayabilityReport(map, difficulty, Double.POSITIVE_INFINITY, new int[0], 0);
+        }
+
+        double distance = map.getDistanceToExit(entrance);
+        int[] path = distance == Double.POSITIVE_INFINITY ? new int[0] : minDamagePath(map, entrance);
+
+        return new PlayabilityReport(map, difficulty, distance * difficulty, path, games);
+    }
+
+    /**
+     * Metodo que obtem as estimativas dos jogos simulados, iniciando-os no pool comum se
+     * ainda nao tiverem sido iniciados. Nao espera pelos jogos
+     *
+     * @return futuro completado com esta analise quando as estimativas estiverem calculadas
+     */
+    public synchronized CompletableFuture<PlayabilityReport> getEstimates() {
+        if (this.estimates == null) {
+            this.estimates = this.games == 0 ? CompletableFuture.completedFuture(this)
+                    : CompletableFuture.supplyAsync(this::simulate, ForkJoinPool.commonPool());
+        }
+
+        return this.estimates;
+    }
+
+    /**
+     * Metodo que verifica se as estimativas dos jogos simulados ja estao calculadas
+     *
+     * @return true se as estimativas estiverem prontas, false caso contrario
+     */
+    public synchronized boolean isEstimated() {
+        return this.estimates != null && this.estimates.isDone();
+    }
+
+    /**
+     * Joga os jogos simulados a andar ao acaso, sem e com o escudo sorteado
+     */
+    private PlayabilityReport simulate() {
+        int entrance = this.map.getEntranceId();
+
+        GameSimulator walk = new GameSimulator(this.map, entrance, this.map.getPoints(), this.difficulty, MovePolicies.randomWalk(),
+                -1, 0, GameSimulator.DEFAULT_MAX_STEPS);
+        BatchStatistics plain = new BatchSimulation(walk).run(this.games, SEED);
+        BatchStatistics shielded = plain;
+
+        //o escudo e sorteado como no jogo manual; sem divisoes ou pontos possiveis nao ha escudo
+        int[] shieldRooms = this.map.getShieldRooms(entrance);
+        int limit = this.map.getShieldLimit();
+
+        if (shieldRooms.length > 0 && limit > 1) {
+            GameSimulator shieldWalk = new GameSimulator(this.map, entrance, this.map.getPoints(), this.difficulty, MovePolicies.randomWalk(),
+                    shieldRooms, 1, limit - 1, GameSimulator.DEFAULT_MAX_STEPS);
+            shielded = new BatchSimulation(shieldWalk).run(this.games, SEED);
+        }
+
+        //os valores ficam visiveis para quem espera pelo futuro, que e completado depois
+        this.survival = plain.getWinRate();
+        this.meanScore = plain.getMeanScore();
+        this.shieldSurvival = shielded.getWinRate();
+        this.shieldMeanScore = shielded.getMeanScore();
+        return this;
+    }
+
+    /**
+     * Espera pelas estimativas dos jogos simulados
+     */
+    private PlayabilityReport estimated() {
+        return getEstimates().join();
+    }
+
+    /**
+     * Estima a memoria ocupada pela analise, sem contar o mapa
+     */
+    long memoryBytes() {
+        return 96 + 16 + 4L * this.path.length;
+    }
+
+    /**
+     * Segue a tabela das distancias ate ao exterior a partir de uma divisao
+     */
+    private static int[] minDamagePath(MapTopology map, int room) throws ElementDoesntExistException, EmptyCollectionException {
+        int[] path = new int[16];
+        int length = 0;
+
+        path[length++] = room;
+
+        while (room != MapTopology.EXTERIOR) {
+            room = map.getNextMoveToExit(room);
+
+            if (length == path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+
+            path[length++] = room;
+        }
+
+        return Arrays.copyOf(path, length);
+    }
+
+    /**
+     * Metodo que obtem a dificuldade analisada
+     *
+     * @return dificuldade do jogo
+     */
+    public int getDifficulty() {
+        return this.difficulty;
+    }
+
+    /**
+     * Metodo que verifica se e possivel ganhar o jogo sem escudo, pelo caminho com menor dano
+     *
+     * @return true se o mapa for jogavel, false caso contrario
+     */
+    public boolean isPlayable() {
+        return this.minDamage < this.map.getPoints();
+    }
+
+    /**
+     * Metodo que obtem o dano do caminho com menor dano desde a entrada, ja multiplicado pela dificuldade
+     *
+     * @return dano minimo, ou infinito se o exterior nao for alcancavel
+     */
+    public double getMinDamage() {
+        return this.minDamage;
+    }
+
+    /**
+     * Metodo que obtem os identificadores das divisoes do caminho com menor dano
+     *
+     * @return copia do caminho, vazio se o exterior nao for alcancavel
+     */
+    public int[] getMinDamagePathIds() {
+        return this.path.clone();
+    }
+
+    /**
+     * Metodo que obtem as divisoes do caminho com menor dano
+     *
+     * @return divisoes do caminho, vazio se o exterior nao for alcancavel
+     * @throws ElementDoesntExistException
+     */
+    public ArrayUnorderedList<String> getMinDamagePath() throws ElementDoesntExistException {
+        ArrayUnorderedList<String> rooms = new ArrayUnorderedList<>();
+
+        for (int room : this.path) {
+            rooms.addToRear(this.map.getRoom(room));
+        }
+
+        return rooms;
+    }
+
+    /**
+     * Metodo que obtem o numero de jogos simulados em cada estimativa
+     *
+     * @return numero de jogos
+     */
+    public long getGames() {
+        return this.games;
+    }
+
+    /**
+     * Metodo que obtem a probabilidade de ganhar a andar ao acaso, sem escudo, esperando
+     * pelos jogos simulados se ainda nao estiverem jogados
+     *
+     * @return probabilidade estimada, entre 0 e 1
+     */
+    public double getSurvivalRate() {
+        return estimated().survival;
+    }
+
+    /**
+     * Metodo que obtem a pontuacao final media a andar ao acaso, sem escudo, esperando
+     * pelos jogos simulados se ainda nao estiverem jogados
+     *
+     * @return pontuacao media
+     */
+    public double getMeanScore() {
+        return estimated().meanScore;
+    }
+
+    /**
+     * Metodo que obtem a probabilidade de ganhar a andar ao acaso, com o escudo sorteado,
+     * esperando pelos jogos simulados se ainda nao estiverem jogados
+     *
+     * @return probabilidade estimada, entre 0 e 1
+     */
+    public double getShieldSurvivalRate() {
+        return estimated().shieldSurvival;
+    }
+
+    /**
+     * Metodo que obtem a pontuacao final media a andar ao acaso, com o escudo sorteado,
+     * esperando pelos jogos simulados se ainda nao estiverem jogados
+     *
+     * @return pontuacao media
+     */
+    public double getShieldMeanScore() {
+        return estimated().shieldMeanScore;
+    }
+
+    /**
+     * Metodo que obtem quanto o escudo aumenta a probabilidade de ganhar a andar ao acaso,
+     * esperando pelos jogos simulados se ainda nao estiverem jogados
+     *
+     * @return diferenca entre as probabilidades com e sem escudo
+     */
+    public double getShieldEffect() {
+        PlayabilityReport report = estimated();
+        return report.shieldSurvival - report.survival;
+    }
+
+    /**
+     * Metodo toString, que nao espera pelos jogos simulados
+     *
+     * @return representacao textual da analise
+     */
+    @Override
+    public String toString() {
+        String text = "Difficulty: " + this.difficulty + "; Playable: " + isPlayable() + "; Min damage: " + this.minDamage;
+
+        if (!isEstimated()) {
+            return text + "; Survival: pending";
+        }
+
+        PlayabilityReport report = estimated();
+        return text + "; Survival: " + report.survival + "; Survival with shield: " + report.shieldSurvival;
+    }
+}
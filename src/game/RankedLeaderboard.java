@@ -0,0 +1,812 @@
+package game;
+
+import structures.ArrayUnorderedList;
+import structures.RankedTree;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Classificacao de um mapa guardada em memoria em arvores ordenadas pela pontuacao,
+ * sobre o ficheiro de classificacao do mapa.
+ *
+ * Cada nova pontuacao e inserida numa arvore em O(log n) e escrita como um registo no fim
+ * de um {@link ScoreLog} ao lado do ficheiro de classificacao, com um fsync partilhado
+ * pelos jogos que terminam ao mesmo tempo. Com s arvores, a posicao de uma pontuacao e
+ * obtida em O(s log n), as primeiras k pontuacoes em O(s log n + k log s), juntando as
+ * arvores a partir do inicio, e uma pagina a meio da classificacao em O(s^2 log^2 n + k log s).
+ *
+ * Quando o registo passa {@value #COMPACT_THRESHOLD} pontuacoes, uma thread em segundo
+ * plano escreve toda a classificacao ordenada no ficheiro de classificacao, no formato
+ * "pontos - nome" de sempre, e descarta o registo. Ao abrir a classificacao, o ficheiro
+ * e lido e o registo e repetido por cima dele. Uma compactacao interrompida e terminada
+ * ou desfeita na abertura seguinte, sem perder nem duplicar pontuacoes:
+ * <ol>
+ * <li>o registo atual passa a {@code .log.compacting} e e aberto um registo novo;</li>
+ * <li>a classificacao e escrita em {@code .tmp} e num {@link ScoreFile} em {@code .rank.tmp}, ambos sincronizados;</li>
+ * <li>o registo antigo passa a {@code .log.done}, o que confirma que os ficheiros temporarios estao completos;</li>
+ * <li>os ficheiros temporarios substituem os ficheiros de classificacao e o {@code .log.done} e apagado.</li>
+ * </ol>
+ *
+ * As classificacoes sao partilhadas por path, pelo que todos os jogos que terminam no
+ * mesmo mapa escrevem na mesma classificacao, e mapas diferentes nunca partilham locks.
+ * Dentro de cada mapa, as pontuacoes estao repartidas por varias arvores, cada uma com o
+ * seu lock, e cada thread insere na sua, pelo que os jogos que terminam ao mesmo tempo
+ * nao esperam uns pelos outros. Cada insercao publica uma versao imutavel de todas as
+ * arvores, obtida com {@link RankedTree#snapshot()} em O(1) e com uma copia de O(log n)
+ * nos na insercao seguinte. As consultas leem a ultima versao publicada sem locks, pelo
+ * que nunca atrasam uma insercao nem esperam por ela, e veem sempre uma classificacao
+ * completa: uma pontuacao inserida depois de outra nunca aparece sem ela. Apenas a
+ * compactacao, enquanto troca de registo, faz as insercoes esperar.
+ *
+ * Cada classificacao tem ainda um indice dos jogadores: uma tabela de hash com a melhor
+ * pontuacao de cada jogador e uma arvore ordenada so com essas pontuacoes, pelo que a
+ * melhor pontuacao de um jogador e obtida em O(1) e a sua posicao entre os jogadores em
+ * O(log n), sem percorrer as pontuacoes. A arvore dos jogadores tambem e publicada
+ * numa versao imutavel a cada alteracao. Como o ficheiro em texto nao guarda o momento
+ * nem a dificuldade, a classificacao e lida do {@link ScoreFile} sempre que este
+ * corresponde ao ficheiro em texto.
+ */
+public class RankedLeaderboard {
+
+    /**
+     * Numero de pontuacoes no registo a partir do qual a classificacao e compactada
+     */
+    public static final int COMPACT_THRESHOLD = 1024;
+
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+
+    private static final ConcurrentHashMap<String, RankedLeaderboard> OPEN = new ConcurrentHashMap<>();
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "leaderboard-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String path;
+    private final String map;
+    private final RankedTree<ScoreEntry>[] shards;
+    private final RankedTree<ScoreEntry> players;
+    private final AtomicReference<Version> version;
+    private volatile RankedTree<ScoreEntry> playersVersion;
+    private final ConcurrentHashMap<String, ScoreEntry> bestByPlayer;
+    private final ReentrantReadWriteLock lock;
+    private final Object compaction;
+    private final AtomicLong lastTimestamp;
+    private final AtomicInteger size;
+    private final AtomicReference<ScoreEntry> best;
+    private final AtomicBoolean compactionScheduled;
+    private volatile ScoreLog log;
+    private volatile boolean loaded;
+    private volatile boolean compactionFailed;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RankedLeaderboard(String path) {
+        this.path = path;
+        this.map = mapOf(path);
+        this.shards = new RankedTree[STRIPES];
+        this.players = new RankedTree<>(ScoreEntry.RANKING.thenComparing(ScoreEntry::getName));
+        this.version = new AtomicReference<>();
+        this.playersVersion = this.players.snapshot();
+        this.bestByPlayer = new ConcurrentHashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.compaction = new Object();
+        this.lastTimestamp = new AtomicLong();
+        this.size = new AtomicInteger();
+        this.best = new AtomicReference<>();
+        this.compactionScheduled = new AtomicBoolean();
+        this.log = null;
+        this.loaded = false;
+        this.compactionFailed = false;
+
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = new RankedTree<>(ScoreEntry.RANKING);
+        }
+
+        this.version.set(new Version(snapshotAll(), 0));
+    }
+
+    /**
+     * Metodo que obtem a classificacao guardada num ficheiro, lendo-o apenas na primeira vez.
+     * A leitura so bloqueia quem pede a mesma classificacao
+     *
+     * @param path path do ficheiro de classificacao
+     * @return a classificacao
+     * @throws IOException se nao for possivel ler o ficheiro
+     */
+    public static RankedLeaderboard open(String path) throws IOException {
+        String key = Paths.get(path).toAbsolutePath().normalize().toString();
+        RankedLeaderboard board = OPEN.computeIfAbsent(key, k -> new RankedLeaderboard(path));
+
+        if (!board.loaded) {
+            synchronized (board) {
+                if (!board.loaded) {
+                    board.load();
+                    board.loaded = true;
+                }
+            }
+        }
+
+        return board;
+    }
+
+    /**
+     * Metodo que obtem uma classificacao se ja estiver aberta neste programa, sem ler nenhum ficheiro
+     *
+     * @param path path do ficheiro de classificacao
+     * @return a classificacao, ou null se ainda nao tiver sido aberta
+     */
+    public static RankedLeaderboard getOpen(String path) {
+        RankedLeaderboard board = OPEN.get(Paths.get(path).toAbsolutePath().normalize().toString());
+        return board != null && board.loaded ? board : null;
+    }
+
+    /**
+     * Obtem o nome do mapa de uma classificacao, que e o path do mapa sem o ".txt" do
+     * ficheiro de classificacao
+     */
+    static String mapOf(String path) {
+        String name = Paths.get(path).getFileName().toString();
+        return name.endsWith(".txt") ? name.substring(0, name.length() - ".txt".length()) : name;
+    }
+
+    /**
+     * Termina ou desfaz uma compactacao interrompida, le o ficheiro de classificacao e
+     * repete o registo por cima dele
+     */
+    private void load() throws IOException {
+        Path done = Paths.get(this.path + ".log.done");
+        Path temporary = Paths.get(this.path + ".tmp");
+        Path temporaryRank = Paths.get(this.path + ScoreFile.EXTENSION + ".tmp");
+        Path compacting = Paths.get(this.path + ".log.compacting");
+
+        if (Files.exists(done)) {
+            //os ficheiros temporarios ficaram completos; falta apenas substituir os ficheiros de classificacao
+            if (Files.exists(temporary)) {
+                Files.move(temporary, Paths.get(this.path), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            if (Files.exists(temporaryRank)) {
+                Files.move(temporaryRank, Paths.get(this.path + ScoreFile.EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            Files.delete(done);
+        } else {
+            Files.deleteIfExists(temporary);
+            Files.deleteIfExists(temporaryRank);
+        }
+
+        loadSnapshot();
+
+        if (Files.exists(compacting)) {
+            ScoreLog.replay(compacting.toString(), this.map, this::replayed);
+            publishAll();
+            writeSnapshot(merge(this.version.get()));
+        }
+
+        int records = ScoreLog.replay(this.path + ".log", this.map, this::replayed);
+        this.log = new ScoreLog(this.path + ".log", records);
+        publishAll();
+
+        if (records >= COMPACT_THRESHOLD) {
+            scheduleCompaction();
+        }
+    }
+
+    /**
+     * Le as pontuacoes do ficheiro binario, se corresponder ao ficheiro em texto, ou do
+     * ficheiro em texto; como as linhas nao tem data, a ordem das linhas serve de momento
+     * de cada pontuacao
+     */
+    private void loadSnapshot() throws IOException {
+        Path snapshot = Paths.get(this.path);
+        ScoreFile file = null;
+
+        try {
+            file = ScoreFile.open(this.path + ScoreFile.EXTENSION, this.map);
+        } catch (IOException ex) {
+            //nao ha ficheiro binario ou esta num formato antigo
+        }
+
+        if (file != null && Files.exists(snapshot) && file.getSnapshotBytes() == Files.size(snapshot)) {
+            for (int i = 0; i < file.size(); i++) {
+                replayed(file.get(i));
+            }
+
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(this.path))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                ScoreEntry entry = ScoreEntry.parse(line, this.map, this.lastTimestamp.get() + 1);
+
+                if (entry != null) {
+                    replayed(entry);
+                }
+            }
+        } catch (FileNotFoundException ex) {
+            //ainda nao ha pontuacoes para este mapa
+        }
+    }
+
+    /**
+     * Insere uma pontuacao lida do disco, repartindo as pontuacoes pelas arvores. As
+     * versoes so sao publicadas no fim da leitura, para que as arvores nao sejam copiadas
+     */
+    private void replayed(ScoreEntry entry) {
+        insert(entry, this.size.get() & (STRIPES - 1), false);
+    }
+
+    /**
+     * Insere uma pontuacao numa arvore e atualiza a melhor pontuacao e o indice dos jogadores
+     */
+    private void insert(ScoreEntry entry, int stripe, boolean publish) {
+        RankedTree<ScoreEntry> shard = this.shards[stripe];
+
+        synchronized (shard) {
+            shard.add(entry);
+
+            //a versao e publicada dentro do lock da arvore, para que as versoes de cada arvore nunca andem para tras
+            if (publish) {
+                publish(stripe, shard.snapshot());
+            }
+        }
+
+        index(entry, publish);
+
+        this.lastTimestamp.accumulateAndGet(entry.getTimestamp(), Math::max);
+        this.best.accumulateAndGet(entry, (current, added) ->
+                current == null || ScoreEntry.RANKING.compare(added, current) < 0 ? added : current);
+        this.size.incrementAndGet();
+    }
+
+    /**
+     * Substitui a melhor pontuacao do jogador, se a nova for melhor. A maioria das
+     * pontuacoes nao e a melhor do jogador e e descartada sem locks
+     */
+    private void index(ScoreEntry entry, boolean publish) {
+        ScoreEntry current = this.bestByPlayer.get(entry.getName());
+
+        if (current != null && ScoreEntry.RANKING.compare(entry, current) >= 0) {
+            return;
+        }
+
+        synchronized (this.players) {
+            current = this.bestByPlayer.get(entry.getName());
+
+            if (current == null || ScoreEntry.RANKING.compare(entry, current) < 0) {
+                if (current != null) {
+                    this.players.remove(current);
+                }
+
+                this.players.add(entry);
+                this.bestByPlayer.put(entry.getName(), entry);
+
+                if (publish) {
+                    this.playersVersion = this.players.snapshot();
+                }
+            }
+        }
+    }
+
+    /**
+     * Substitui a versao de uma arvore na versao publicada. So as insercoes em arvores
+     * diferentes competem pela publicacao, e cada tentativa so copia s referencias
+     */
+    private void publish(int stripe, RankedTree<ScoreEntry> shard) {
+        while (true) {
+            Version current = this.version.get();
+            RankedTree<ScoreEntry>[] shards = current.shards.clone();
+            int size = current.size - shards[stripe].size() + shard.size();
+
+            shards[stripe] = shard;
+
+            if (this.version.compareAndSet(current, new Version(shards, size))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publica uma versao de todas as arvores e dos jogadores, depois de ler a classificacao
+     */
+    private void publishAll() {
+        RankedTree<ScoreEntry>[] shards = snapshotAll();
+        int size = 0;
+
+        for (RankedTree<ScoreEntry> shard : shards) {
+            size += shard.size();
+        }
+
+        this.version.set(new Version(shards, size));
+
+        synchronized (this.players) {
+            this.playersVersion = this.players.snapshot();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RankedTree<ScoreEntry>[] snapshotAll() {
+        RankedTree<ScoreEntry>[] shards = new RankedTree[this.shards.length];
+
+        for (int i = 0; i < shards.length; i++) {
+            synchronized (this.shards[i]) {
+                shards[i] = this.shards[i].snapshot();
+            }
+        }
+
+        return shards;
+    }
+
+    /**
+     * Metodo que obtem o path do ficheiro de classificacao
+     *
+     * @return path do ficheiro
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Metodo que obtem o nome do mapa da classificacao
+     *
+     * @return nome do mapa
+     */
+    public String getMap() {
+        return this.map;
+    }
+
+    /**
+     * Metodo que insere uma pontuacao sem dificuldade conhecida
+     *
+     * @param name nome do jogador
+     * @param score pontos obtidos
+     * @return a pontuacao inserida
+     * @throws IOException se nao for possivel escrever no registo
+     */
+    public ScoreEntry add(String name, int score) throws IOException {
+        return add(name, ScoreEntry.UNKNOWN_DIFFICULTY, score);
+    }
+
+    /**
+     * Metodo que insere uma pontuacao e a escreve no fim do registo, esperando que
+     * esteja no disco
+     *
+     * @param name nome do jogador
+     * @param difficulty dificuldade do jogo
+     * @param score pontos obtidos
+     * @return a pontuacao inserida
+     * @throws IOException se nao for possivel escrever no registo
+     */
+    public ScoreEntry add(String name, int difficulty, int score) throws IOException {
+        ScoreEntry entry;
+        ScoreLog current;
+        long sequence;
+
+        this.lock.readLock().lock();
+
+        try {
+            //o momento nunca anda para tras, para que as pontuacoes lidas fiquem antes das novas
+            long timestamp = this.lastTimestamp.updateAndGet(last -> Math.max(System.currentTimeMillis(), last + 1));
+            entry = new ScoreEntry(name, this.map, difficulty, score, timestamp);
+            current = this.log;
+            sequence = current.append(entry);
+            insert(entry, (int) Thread.currentThread().getId() & (STRIPES - 1), true);
+
+            if (current.records() >= COMPACT_THRESHOLD) {
+                scheduleCompaction();
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        //o fsync e feito fora do lock, para que os jogos que terminam entretanto o partilhem
+        current.sync(sequence);
+        return entry;
+    }
+
+    private void scheduleCompaction() {
+        //uma compactacao que falhou so e resolvida quando a classificacao voltar a ser aberta
+        if (!this.compactionFailed && this.compactionScheduled.compareAndSet(false, true)) {
+            COMPACTOR.execute(() -> {
+                try {
+                    compact();
+                } catch (IOException ex) {
+                    this.compactionFailed = true;
+                    Logger.getLogger(RankedLeaderboard.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Metodo que escreve toda a classificacao ordenada no ficheiro de classificacao e
+     * descarta o registo. Normalmente e feito em segundo plano quando o registo cresce
+     *
+     * @throws IOException se nao for possivel escrever o ficheiro
+     */
+    public void compact() throws IOException {
+        synchronized (this.compaction) {
+            Version current;
+
+            this.lock.writeLock().lock();
+
+            try {
+                this.compactionScheduled.set(false);
+
+                if (Files.exists(Paths.get(this.path + ".log.compacting"))) {
+                    throw new IOException("A previous compaction of " + this.path + " didn't finish.");
+                }
+
+                //o canal aberto continua a apontar para o ficheiro depois de mudar de nome
+                Files.move(Paths.get(this.path + ".log"), Paths.get(this.path + ".log.compacting"), StandardCopyOption.ATOMIC_MOVE);
+                this.log.close();
+                this.log = new ScoreLog(this.path + ".log", 0);
+                current = this.version.get();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            //a versao publicada tem exatamente as pontuacoes do registo antigo, e e junta fora do lock
+            writeSnapshot(merge(current));
+        }
+    }
+
+    /**
+     * Junta as arvores de uma versao numa unica classificacao ordenada, para a
+     * compactacao e para escrever toda a classificacao
+     */
+    private static ScoreEntry[] merge(Version version) {
+        ScoreEntry[] entries = new ScoreEntry[version.size];
+        int[] count = {0};
+
+        walk(version.shards, new int[version.shards.length], entries.length, entry -> entries[count[0]++] = entry);
+        return entries;
+    }
+
+    /**
+     * Obtem a posicao de partida em cada arvore para que as pontuacoes antes delas sejam
+     * exatamente as primeiras k da classificacao. Procura a pontuacao na posicao k com uma
+     * pesquisa binaria sobre varias arvores: cada passo divide ao meio o maior intervalo
+     * ainda possivel e conta a posicao do elemento do meio em todas as arvores, pelo que
+     * custa O(s^2 log^2 n) para s arvores. Os momentos sao unicos em cada classificacao,
+     * pelo que nao ha duas pontuacoes iguais
+     */
+    private static int[] split(Version version, int k) {
+        RankedTree<ScoreEntry>[] shards = version.shards;
+        int[] low = new int[shards.length];
+        int[] high = new int[shards.length];
+
+        if (k == 0) {
+            return low;
+        }
+
+        for (int i = 0; i < shards.length; i++) {
+            high[i] = shards[i].size();
+        }
+
+        if (k >= version.size) {
+            return high;
+        }
+
+        while (true) {
+            int widest = 0;
+
+            for (int i = 1; i < shards.length; i++) {
+                if (high[i] - low[i] > high[widest] - low[widest]) {
+                    widest = i;
+                }
+            }
+
+            int middle = (low[widest] + high[widest]) >>> 1;
+            ScoreEntry pivot = shards[widest].get(middle);
+            int[] ranks = new int[shards.length];
+            int position = 0;
+
+            for (int i = 0; i < shards.length; i++) {
+                ranks[i] = shards[i].rank(pivot);
+                position += ranks[i];
+            }
+
+            if (position == k) {
+                return ranks;
+            }
+
+            //a pontuacao procurada esta depois do elemento do meio, ou antes dele
+            for (int i = 0; i < shards.length; i++) {
+                if (position < k) {
+                    low[i] = Math.max(low[i], i == widest ? middle + 1 : ranks[i]);
+                } else {
+                    high[i] = Math.min(high[i], ranks[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Percorre as pontuacoes das arvores por ordem a partir das posicoes dadas, juntando-as
+     * com um heap das pontuacoes seguintes de cada arvore, em O(log s) por pontuacao para
+     * s arvores
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void walk(RankedTree<ScoreEntry>[] shards, int[] starts, int count, Consumer<ScoreEntry> action) {
+        Iterator<ScoreEntry>[] iterators = new Iterator[shards.length];
+        ScoreEntry[] heads = new ScoreEntry[shards.length];
+        int[] heap = new int[shards.length];
+        int size = 0;
+
+        for (int i = 0; i < shards.length; i++) {
+            iterators[i] = shards[i].iterator(starts[i]);
+
+            if (iterators[i].hasNext()) {
+                heads[i] = iterators[i].next();
+                heap[size++] = i;
+            }
+        }
+
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, size, i, heads);
+        }
+
+        for (int k = 0; k < count && size > 0; k++) {
+            int first = heap[0];
+            action.accept(heads[first]);
+
+            if (iterators[first].hasNext()) {
+                heads[first] = iterators[first].next();
+            } else {
+                heap[0] = heap[--size];
+            }
+
+            siftDown(heap, size, 0, heads);
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, int i, ScoreEntry[] heads) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+
+            if (left < size && ScoreEntry.RANKING.compare(heads[heap[left]], heads[heap[smallest]]) < 0) {
+                smallest = left;
+            }
+
+            if (right < size && ScoreEntry.RANKING.compare(heads[heap[right]], heads[heap[smallest]]) < 0) {
+                smallest = right;
+            }
+
+            if (smallest == i) {
+                return;
+            }
+
+            int swap = heap[i];
+            heap[i] = heap[smallest];
+            heap[smallest] = swap;
+            i = smallest;
+        }
+    }
+
+    /**
+     * Escreve a classificacao em ficheiros temporarios e substitui os ficheiros de
+     * classificacao, descartando o registo que ja esta incluido neles
+     */
+    private void writeSnapshot(ScoreEntry[] entries) throws IOException {
+        Path temporary = Paths.get(this.path + ".tmp");
+        Path temporaryRank = Paths.get(this.path + ScoreFile.EXTENSION + ".tmp");
+        Path done = Paths.get(this.path + ".log.done");
+
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+                PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(file)))) {
+            for (ScoreEntry entry : entries) {
+                out.println(entry);
+            }
+
+            out.flush();
+
+            if (out.checkError()) {
+                throw new IOException("Couldn't write to " + temporary);
+            }
+
+            file.getFD().sync();
+        }
+
+        ScoreFile.write(temporaryRank.toString(), entries, Files.size(temporary));
+
+        Files.move(Paths.get(this.path + ".log.compacting"), done, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(temporary, Paths.get(this.path), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(temporaryRank, Paths.get(this.path + ScoreFile.EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(done);
+    }
+
+    /**
+     * Metodo que obtem o numero de pontuacoes
+     *
+     * @return numero de pontuacoes
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Metodo que obtem a melhor pontuacao, sem usar locks
+     *
+     * @return a melhor pontuacao, ou null se nao houver pontuacoes
+     */
+    public ScoreEntry getBest() {
+        return this.best.get();
+    }
+
+    /**
+     * Metodo que obtem a posicao de uma pontuacao na classificacao
+     *
+     * @param entry pontuacao
+     * @return posicao, a comecar em 1
+     */
+    public int getRank(ScoreEntry entry) {
+        int rank = 0;
+
+        for (RankedTree<ScoreEntry> shard : this.version.get().shards) {
+            rank += shard.rank(entry);
+        }
+
+        return rank + 1;
+    }
+
+    /**
+     * Metodo que obtem a posicao que uma nova pontuacao ocuparia na classificacao
+     *
+     * @param score pontos
+     * @return posicao, a comecar em 1
+     */
+    public int getRank(int score) {
+        return getRank(new ScoreEntry(null, score, Long.MAX_VALUE));
+    }
+
+    /**
+     * Metodo que obtem a pontuacao numa posicao da classificacao
+     *
+     * @param rank posicao, a comecar em 1
+     * @return a pontuacao
+     * @throws IndexOutOfBoundsException se a posicao nao existir
+     */
+    public ScoreEntry get(int rank) {
+        Version current = this.version.get();
+        ScoreEntry[] found = new ScoreEntry[1];
+
+        if (rank < 1 || rank > current.size) {
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", Size: " + current.size);
+        }
+
+        walk(current.shards, split(current, rank - 1), 1, entry -> found[0] = entry);
+        return found[0];
+    }
+
+    /**
+     * Metodo que obtem as melhores pontuacoes
+     *
+     * @param count numero de pontuacoes
+     * @return as melhores pontuacoes, da maior para a menor
+     */
+    public ArrayUnorderedList<ScoreEntry> getTop(int count) {
+        return getPage(1, count);
+    }
+
+    /**
+     * Metodo que obtem uma pagina da classificacao
+     *
+     * @param from posicao da primeira pontuacao, a comecar em 1
+     * @param count numero de pontuacoes
+     * @return as pontuacoes da pagina, da maior para a menor
+     */
+    public ArrayUnorderedList<ScoreEntry> getPage(int from, int count) {
+        Version current = this.version.get();
+        ArrayUnorderedList<ScoreEntry> page = new ArrayUnorderedList<>();
+
+        walk(current.shards, split(current, Math.max(0, from - 1)), count, page::addToRear);
+        return page;
+    }
+
+    /**
+     * Metodo que obtem o numero de jogadores diferentes
+     *
+     * @return numero de jogadores
+     */
+    public int getPlayers() {
+        return this.bestByPlayer.size();
+    }
+
+    /**
+     * Metodo que obtem a melhor pontuacao de um jogador, sem percorrer a classificacao
+     *
+     * @param player nome do jogador
+     * @return a melhor pontuacao, ou null se o jogador nao tiver pontuacoes
+     */
+    public ScoreEntry getBest(String player) {
+        return this.bestByPlayer.get(player);
+    }
+
+    /**
+     * Metodo que obtem a posicao da melhor pontuacao de um jogador entre todas as pontuacoes
+     *
+     * @param player nome do jogador
+     * @return posicao, a comecar em 1, ou -1 se o jogador nao tiver pontuacoes
+     */
+    public int getRank(String player) {
+        ScoreEntry best = getBest(player);
+        return best == null ? -1 : getRank(best);
+    }
+
+    /**
+     * Metodo que obtem a posicao de um jogador entre os jogadores, ordenados pela melhor
+     * pontuacao de cada um
+     *
+     * @param player nome do jogador
+     * @return posicao, a comecar em 1, ou -1 se o jogador nao tiver pontuacoes
+     */
+    public int getPlayerRank(String player) {
+        ScoreEntry best = getBest(player);
+        return best == null ? -1 : this.playersVersion.rank(best) + 1;
+    }
+
+    /**
+     * Metodo que obtem uma pagina dos jogadores, com a melhor pontuacao de cada um
+     *
+     * @param from posicao do primeiro jogador, a comecar em 1
+     * @param count numero de jogadores
+     * @return as melhores pontuacoes dos jogadores da pagina, da maior para a menor
+     */
+    public ArrayUnorderedList<ScoreEntry> getPlayerPage(int from, int count) {
+        return this.playersVersion.range(Math.max(0, from - 1), count);
+    }
+
+    /**
+     * Metodo que escreve toda a classificacao, da maior para a menor pontuacao
+     *
+     * @param out destino
+     */
+    public void print(PrintWriter out) {
+        Version current = this.version.get();
+
+        walk(current.shards, new int[current.shards.length], current.size, out::println);
+        out.flush();
+    }
+
+    /**
+     * Versao publicada das arvores, que nunca e alterada, com o numero de pontuacoes
+     */
+    private static final class Version {
+        private final RankedTree<ScoreEntry>[] shards;
+        private final int size;
+
+        private Version(RankedTree<ScoreEntry>[] shards, int size) {
+            this.shards = shards;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package game;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Lista so de leitura de divisoes, ordenada pelo nome, sobre um bloco de um array
+ * de identificadores partilhado pelo mapa.
+ *
+ * As listas das divisoes vizinhas sao criadas uma unica vez quando o mapa e lido, pelo
+ * que obter os movimentos possiveis nao cria objetos nem ordena nada. A pesquisa
+ * por nome e binaria.
+ */
+public final class RoomList implements Iterable<String> {
+
+    private final String[] names;
+    private final int[] ids;
+    private final int start;
+    private final int end;
+
+    /**
+     * Metodo construtor que cria uma lista sobre um bloco de identificadores
+     *
+     * @param names nomes das divisoes, indexados pelo identificador
+     * @param ids identificadores, ordenados pelo nome dentro do bloco
+     * @param start inicio do bloco
+     * @param end fim do bloco, exclusivo
+     */
+    RoomList(String[] names, int[] ids, int start, int end) {
+        this.names = names;
+        this.ids = ids;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Metodo que obtem o numero de divisoes da lista
+     *
+     * @return numero de divisoes
+     */
+    public int size() {
+        return this.end - this.start;
+    }
+
+    /**
+     * Metodo que verifica se a lista esta vazia
+     *
+     * @return true se a lista estiver vazia, false caso contrario
+     */
+    public boolean isEmpty() {
+        return this.end == this.start;
+    }
+
+    /**
+     * Metodo que obtem o nome da divisao numa posicao da lista
+     *
+     * @param i posicao
+     * @return nome da divisao
+     */
+    public String get(int i) {
+        return this.names[getId(i)];
+    }
+
+    /**
+     * Metodo que obtem o identificador da divisao numa posicao da lista
+     *
+     * @param i posicao
+     * @return identificador da divisao
+     */
+    public int getId(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+        }
+
+        return this.ids[this.start + i];
+    }
+
+    /**
+     * Metodo que procura uma divisao pelo nome, com pesquisa binaria
+     *
+     * @param room nome da divisao
+     * @return posicao da divisao na lista, ou -1 se nao existir
+     */
+    public int indexOf(String room) {
+        int low = this.start;
+        int high = this.end - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = this.names[this.ids[middle]].compareTo(room);
+
+            if (compare < 0) {
+                low = middle + 1;
+            } else if (compare > 0) {
+                high = middle - 1;
+            } else {
+                return middle - this.start;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Metodo que verifica se uma divisao esta na lista
+     *
+     * @param room nome da divisao
+     * @return true se a divisao estiver na lista, false caso contrario
+     */
+    public boolean contains(String room) {
+        return room != null && indexOf(room) != -1;
+    }
+
+    /**
+     * Metodo que verifica se uma divisao esta na lista, pelo seu identificador
+     *
+     * @param id identificador da divisao
+     * @return true se a divisao estiver na lista, false caso contrario
+     */
+    public boolean containsId(int id) {
+        for (int i = this.start; i < this.end; i++) {
+            if (this.ids[i] == id) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void forEach(Consumer<? super String> action) {
+        for (int i = this.start; i < this.end; i++) {
+            action.accept(this.names[this.ids[i]]);
+        }
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int cursor = RoomList.this.start;
+
+            @Override
+            public boolean hasNext() {
+                return this.cursor < RoomList.this.end;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return RoomList.this.names[RoomList.this.ids[this.cursor++]];
+            }
+        };
+    }
+
+    /**
+     * Metodo toString, no mesmo formato das listas do jogo
+     *
+     * @return representacao textual da lista
+     */
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+
+        for (int i = this.start; i < this.end; i++) {
+            str.append(this.names[this.ids[i]]);
+            str.append(" ");
+        }
+
+        return str.toString();
+    }
+}
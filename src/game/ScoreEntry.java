@@ -0,0 +1,141 @@
+package game;
+
+import java.util.Comparator;
+
+/**
+ * Pontuacao de um jogador numa classificacao: o nome do jogador, o mapa, a dificuldade,
+ * os pontos e o momento em que foi obtida. As pontuacoes sao ordenadas pelos pontos, da
+ * maior para a menor, e em caso de empate pela mais antiga.
+ */
+public final class ScoreEntry {
+
+    /**
+     * Ordem das pontuacoes na classificacao
+     */
+    public static final Comparator<ScoreEntry> RANKING = (a, b) -> {
+        if (a.score != b.score) {
+            return Integer.compare(b.score, a.score);
+        }
+
+        return Long.compare(a.timestamp, b.timestamp);
+    };
+
+    /**
+     * Dificuldade das pontuacoes lidas de ficheiros que nao a guardam
+     */
+    public static final int UNKNOWN_DIFFICULTY = 0;
+
+    private final String name;
+    private final String map;
+    private final int difficulty;
+    private final int score;
+    private final long timestamp;
+
+    /**
+     * Metodo construtor que cria uma pontuacao sem mapa nem dificuldade, usada para
+     * procurar posicoes na classificacao
+     *
+     * @param name nome do jogador
+     * @param score pontos obtidos
+     * @param timestamp momento em que a pontuacao foi obtida
+     */
+    public ScoreEntry(String name, int score, long timestamp) {
+        this(name, null, UNKNOWN_DIFFICULTY, score, timestamp);
+    }
+
+    /**
+     * Metodo construtor que cria uma pontuacao
+     *
+     * @param name nome do jogador
+     * @param map nome do mapa
+     * @param difficulty dificuldade do jogo
+     * @param score pontos obtidos
+     * @param timestamp momento em que a pontuacao foi obtida; as pontuacoes lidas de
+     * ficheiros sem data usam a ordem das linhas
+     */
+    public ScoreEntry(String name, String map, int difficulty, int score, long timestamp) {
+        this.name = name;
+        this.map = map;
+        this.difficulty = difficulty;
+        this.score = score;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Metodo que le uma pontuacao no formato dos ficheiros de classificacao, "pontos - nome"
+     *
+     * @param line linha do ficheiro
+     * @param map nome do mapa da classificacao
+     * @param timestamp momento atribuido a pontuacao
+     * @return a pontuacao, com a dificuldade desconhecida, ou null se a linha nao estiver no formato esperado
+     */
+    public static ScoreEntry parse(String line, String map, long timestamp) {
+        int separator = line.indexOf(" - ");
+
+        if (separator == -1) {
+            return null;
+        }
+
+        try {
+            return new ScoreEntry(line.substring(separator + 3), map, UNKNOWN_DIFFICULTY,
+                    Integer.parseInt(line.substring(0, separator).trim()), timestamp);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Metodo que obtem o nome do jogador
+     *
+     * @return nome do jogador
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Metodo que obtem o nome do mapa
+     *
+     * @return nome do mapa
+     */
+    public String getMap() {
+        return this.map;
+    }
+
+    /**
+     * Metodo que obtem a dificuldade do jogo
+     *
+     * @return dificuldade, ou {@link #UNKNOWN_DIFFICULTY} se nao for conhecida
+     */
+    public int getDifficulty() {
+        return this.difficulty;
+    }
+
+    /**
+     * Metodo que obtem os pontos obtidos
+     *
+     * @return pontos
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Metodo que obtem o momento em que a pontuacao foi obtida
+     *
+     * @return momento da pontuacao
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Metodo toString, no formato dos ficheiros de classificacao
+     *
+     * @return linha "pontos - nome"
+     */
+    @Override
+    public String toString() {
+        return this.score + " - " + this.name;
+    }
+}
@@ -0,0 +1,391 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Classe que le e escreve uma classificacao num ficheiro binario ordenado, com registos
+ * de tamanho fixo e um indice dos jogadores, para consultar classificacoes muito grandes
+ * sem as carregar em memoria.
+ *
+ * A leitura mapeia o ficheiro em memoria: a pontuacao numa posicao esta num deslocamento
+ * conhecido, a posicao de uma pontuacao e encontrada com uma pesquisa binaria sobre os
+ * registos, e a melhor pontuacao de um jogador com uma pesquisa binaria sobre o indice,
+ * ordenado pelos bytes UTF-8 dos nomes. Cada nome e guardado uma unica vez. Ao contrario
+ * do ficheiro em texto, guarda o momento e a dificuldade de cada pontuacao.
+ *
+ * <pre>
+ * int    MAGIC, VERSION
+ * int    pontuacoes, jogadores
+ * long   tamanho do ficheiro de classificacao em texto correspondente
+ * long   bytes dos nomes
+ * record pontuacoes [pontuacoes]: int pontos, long momento, int dificuldade, int nome
+ * record indice [jogadores]: int nome, int posicao da melhor pontuacao
+ * nomes  cada nome com o tamanho seguido dos bytes UTF-8
+ * </pre>
+ */
+public class ScoreFile {
+
+    /**
+     * Extensao dos ficheiros de classificacao binarios, acrescentada ao path da classificacao em texto
+     */
+    public static final String EXTENSION = ".rank";
+
+    private static final int MAGIC = 0x53434F52;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int RECORD_BYTES = Integer.BYTES + Long.BYTES + 2 * Integer.BYTES;
+    private static final int INDEX_BYTES = 2 * Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final String map;
+    private final int count;
+    private final int players;
+    private final long snapshotBytes;
+    private final int indexStart;
+    private final int namesStart;
+
+    private ScoreFile(MappedByteBuffer buffer, String map, int count, int players, long snapshotBytes) {
+        this.buffer = buffer;
+        this.map = map;
+        this.count = count;
+        this.players = players;
+        this.snapshotBytes = snapshotBytes;
+        this.indexStart = HEADER_BYTES + count * RECORD_BYTES;
+        this.namesStart = this.indexStart + players * INDEX_BYTES;
+    }
+
+    /**
+     * Metodo que abre um ficheiro de classificacao binario
+     *
+     * @param path path do ficheiro
+     * @param map nome do mapa da classificacao
+     * @return o ficheiro aberto
+     * @throws FileNotFoundException se o ficheiro nao existir
+     * @throws IOException se o ficheiro nao for uma classificacao valida
+     */
+    public static ScoreFile open(String path, String map) throws IOException {
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(path);
+        }
+
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a score file: " + path);
+        }
+
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported score file version " + buffer.getInt(Integer.BYTES) + ".");
+        }
+
+        int count = buffer.getInt(2 * Integer.BYTES);
+        int players = buffer.getInt(3 * Integer.BYTES);
+        long snapshotBytes = buffer.getLong(4 * Integer.BYTES);
+        long namesBytes = buffer.getLong(4 * Integer.BYTES + Long.BYTES);
+
+        if (count < 0 || players < 0 || HEADER_BYTES + (long) count * RECORD_BYTES + (long) players * INDEX_BYTES + namesBytes != buffer.capacity()) {
+            throw new IOException("Invalid score file: " + path);
+        }
+
+        return new ScoreFile(buffer, map, count, players, snapshotBytes);
+    }
+
+    /**
+     * Metodo que escreve uma classificacao no formato binario
+     *
+     * @param path path do ficheiro a escrever
+     * @param entries pontuacoes, ja ordenadas por {@link ScoreEntry#RANKING}
+     * @param snapshotBytes tamanho do ficheiro de classificacao em texto com as mesmas pontuacoes
+     * @throws IOException se nao for possivel escrever o ficheiro
+     */
+    public static void write(String path, ScoreEntry[] entries, long snapshotBytes) throws IOException {
+        try (Writer writer = new Writer(path)) {
+            for (ScoreEntry entry : entries) {
+                writer.add(entry);
+            }
+
+            writer.finish(snapshotBytes);
+        }
+    }
+
+    /**
+     * Escreve um ficheiro de classificacao binario uma pontuacao de cada vez, pela ordem da
+     * classificacao, sem guardar as pontuacoes em memoria: apenas os nomes dos jogadores
+     * ficam em memoria ate ao fim, para escrever o indice ordenado pelo nome. O cabecalho
+     * e escrito no fim, pelo que um ficheiro que nao foi terminado nunca e valido
+     */
+    static final class Writer implements Closeable {
+        private final FileOutputStream file;
+        private final DataOutputStream out;
+        private final HashMap<String, Integer> players;
+        private byte[][] names;
+        private int[] offsets;
+        private int[] best;
+        private int distinct;
+        private int count;
+        private long namesBytes;
+        private ScoreEntry last;
+
+        /**
+         * Metodo construtor que cria o ficheiro
+         *
+         * @param path path do ficheiro a escrever
+         * @throws IOException se nao for possivel criar o ficheiro
+         */
+        Writer(String path) throws IOException {
+            this.file = new FileOutputStream(path);
+            this.out = new DataOutputStream(new BufferedOutputStream(this.file));
+            this.players = new HashMap<>();
+            this.names = new byte[16][];
+            this.offsets = new int[16];
+            this.best = new int[16];
+            this.out.write(new byte[HEADER_BYTES]);
+        }
+
+        /**
+         * Metodo que escreve a pontuacao seguinte
+         *
+         * @param entry pontuacao, que nao pode estar antes da anterior na classificacao
+         * @throws IOException se nao for possivel escrever no ficheiro
+         */
+        void add(ScoreEntry entry) throws IOException {
+            if (this.last != null && ScoreEntry.RANKING.compare(entry, this.last) < 0) {
+                throw new IllegalArgumentException("The scores must be added in ranking order.");
+            }
+
+            Integer player = this.players.get(entry.getName());
+
+            //a primeira pontuacao de cada jogador e a melhor, porque as pontuacoes estao ordenadas
+            if (player == null) {
+                if (this.distinct == this.names.length) {
+                    this.names = Arrays.copyOf(this.names, this.distinct * 2);
+                    this.offsets = Arrays.copyOf(this.offsets, this.distinct * 2);
+                    this.best = Arrays.copyOf(this.best, this.distinct * 2);
+                }
+
+                player = this.distinct++;
+                this.players.put(entry.getName(), player);
+                this.names[player] = entry.getName().getBytes(StandardCharsets.UTF_8);
+                this.offsets[player] = (int) this.namesBytes;
+                this.best[player] = this.count;
+                this.namesBytes += Integer.BYTES + this.names[player].length;
+            }
+
+            if (HEADER_BYTES + (this.count + 1L) * RECORD_BYTES + (long) this.distinct * INDEX_BYTES + this.namesBytes > Integer.MAX_VALUE) {
+                throw new IOException("The leaderboard is too large for a score file.");
+            }
+
+            this.out.writeInt(entry.getScore());
+            this.out.writeLong(entry.getTimestamp());
+            this.out.writeInt(entry.getDifficulty());
+            this.out.writeInt(this.offsets[player]);
+            this.count++;
+            this.last = entry;
+        }
+
+        /**
+         * Metodo que escreve o indice, os nomes e o cabecalho e sincroniza o ficheiro
+         *
+         * @param snapshotBytes tamanho do ficheiro de classificacao em texto com as mesmas pontuacoes
+         * @throws IOException se nao for possivel escrever o ficheiro
+         */
+        void finish(long snapshotBytes) throws IOException {
+            Integer[] order = new Integer[this.distinct];
+
+            for (int i = 0; i < this.distinct; i++) {
+                order[i] = i;
+            }
+
+            Arrays.sort(order, (a, b) -> compare(this.names[a], this.names[b]));
+
+            for (int player : order) {
+                this.out.writeInt(this.offsets[player]);
+                this.out.writeInt(this.best[player]);
+            }
+
+            for (int i = 0; i < this.distinct; i++) {
+                this.out.writeInt(this.names[i].length);
+                this.out.write(this.names[i]);
+            }
+
+            this.out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(this.count).putInt(this.distinct);
+            header.putLong(snapshotBytes).putLong(this.namesBytes);
+            header.flip();
+
+            while (header.hasRemaining()) {
+                this.file.getChannel().write(header, header.position());
+            }
+
+            this.file.getFD().sync();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.out.close();
+        }
+    }
+
+    /**
+     * Compara dois nomes pelos seus bytes UTF-8, sem sinal
+     */
+    private static int compare(byte[] a, byte[] b) {
+        for (int i = 0; i < a.length && i < b.length; i++) {
+            int diff = (a[i] & 0xFF) - (b[i] & 0xFF);
+
+            if (diff != 0) {
+                return diff;
+            }
+        }
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Metodo que obtem o numero de pontuacoes
+     *
+     * @return numero de pontuacoes
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Metodo que obtem o numero de jogadores diferentes
+     *
+     * @return numero de jogadores
+     */
+    public int players() {
+        return this.players;
+    }
+
+    /**
+     * Metodo que obtem o tamanho do ficheiro de classificacao em texto escrito com este,
+     * para verificar se os dois correspondem
+     *
+     * @return tamanho em bytes
+     */
+    public long getSnapshotBytes() {
+        return this.snapshotBytes;
+    }
+
+    /**
+     * Metodo que obtem a pontuacao numa posicao
+     *
+     * @param index posicao, a comecar em 0
+     * @return a pontuacao
+     * @throws IndexOutOfBoundsException se a posicao nao existir
+     */
+    public ScoreEntry get(int index) {
+        if (index < 0 || index >= this.count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.count);
+        }
+
+        int record = HEADER_BYTES + index * RECORD_BYTES;
+        return new ScoreEntry(name(this.buffer.getInt(record + 2 * Integer.BYTES + Long.BYTES)), this.map,
+                this.buffer.getInt(record + Integer.BYTES + Long.BYTES), this.buffer.getInt(record),
+                this.buffer.getLong(record + Integer.BYTES));
+    }
+
+    /**
+     * Metodo que obtem o numero de pontuacoes antes de uma pontuacao, com uma pesquisa binaria
+     *
+     * @param entry pontuacao
+     * @return posicao que a pontuacao ocupa ou ocuparia, a comecar em 0
+     */
+    public int rank(ScoreEntry entry) {
+        int low = 0;
+        int high = this.count;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int record = HEADER_BYTES + middle * RECORD_BYTES;
+            int score = this.buffer.getInt(record);
+            long timestamp = this.buffer.getLong(record + Integer.BYTES);
+
+            if (score > entry.getScore() || (score == entry.getScore() && timestamp < entry.getTimestamp())) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Metodo que obtem a posicao da melhor pontuacao de um jogador, com uma pesquisa binaria no indice
+     *
+     * @param player nome do jogador
+     * @return posicao da melhor pontuacao, a comecar em 0, ou -1 se o jogador nao tiver pontuacoes
+     */
+    public int indexOf(String player) {
+        byte[] name = player.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = this.players - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = this.indexStart + middle * INDEX_BYTES;
+            int compare = compareName(this.buffer.getInt(entry), name);
+
+            if (compare < 0) {
+                low = middle + 1;
+            } else if (compare > 0) {
+                high = middle - 1;
+            } else {
+                return this.buffer.getInt(entry + Integer.BYTES);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Compara o nome guardado num deslocamento com um nome, sem criar objetos
+     */
+    private int compareName(int offset, byte[] name) {
+        int position = this.namesStart + offset;
+        int length = this.buffer.getInt(position);
+
+        for (int i = 0; i < length && i < name.length; i++) {
+            int diff = (this.buffer.get(position + Integer.BYTES + i) & 0xFF) - (name[i] & 0xFF);
+
+            if (diff != 0) {
+                return diff;
+            }
+        }
+
+        return length - name.length;
+    }
+
+    private String name(int offset) {
+        int position = this.namesStart + offset;
+        byte[] name = new byte[this.buffer.getInt(position)];
+        ByteBuffer view = this.buffer.duplicate();
+
+        //cada leitura usa a sua vista, para que o ficheiro possa ser lido por varias threads
+        view.position(position + Integer.BYTES);
+        view.get(name);
+
+        return new String(name, StandardCharsets.UTF_8);
+    }
+}
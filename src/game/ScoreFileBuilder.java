@@ -0,0 +1,193 @@
+package game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Converte um ficheiro de classificacao em texto num {@link ScoreFile} com memoria
+ * limitada, sem abrir a classificacao.
+ *
+ * As pontuacoes recebem o momento pela ordem das linhas, como na leitura da classificacao.
+ * Se o ficheiro ja estiver ordenado, como quando e escrito pela compactacao, as pontuacoes
+ * passam diretamente para o ficheiro binario. Caso contrario, sao ordenadas em blocos de
+ * {@value #RUN_SIZE} pontuacoes, guardados em ficheiros temporarios, que sao depois
+ * juntos por ordem. Em qualquer caso, so os nomes dos jogadores ficam em memoria.
+ */
+final class ScoreFileBuilder {
+
+    /**
+     * Numero maximo de pontuacoes em memoria durante a ordenacao
+     */
+    static final int RUN_SIZE = 1 << 16;
+
+    private ScoreFileBuilder() {
+    }
+
+    /**
+     * Metodo que escreve o ficheiro binario de um ficheiro de classificacao em texto
+     *
+     * @param snapshot path do ficheiro de classificacao em texto
+     * @param target path do ficheiro binario a escrever
+     * @param map nome do mapa da classificacao
+     * @throws IOException se nao for possivel ler ou escrever os ficheiros
+     */
+    static void build(String snapshot, String target, String map) throws IOException {
+        long size = Files.size(Paths.get(snapshot));
+
+        if (!copySorted(snapshot, target, map, size)) {
+            sortRuns(snapshot, target, map, size);
+        }
+    }
+
+    /**
+     * Copia as pontuacoes pela ordem das linhas, desistindo na primeira fora de ordem
+     */
+    private static boolean copySorted(String snapshot, String target, String map, long size) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(snapshot));
+                ScoreFile.Writer writer = new ScoreFile.Writer(target)) {
+            ScoreEntry last = null;
+            String line;
+            long timestamp = 0;
+
+            while ((line = reader.readLine()) != null) {
+                ScoreEntry entry = ScoreEntry.parse(line, map, timestamp + 1);
+
+                if (entry != null) {
+                    if (last != null && ScoreEntry.RANKING.compare(entry, last) < 0) {
+                        return false;
+                    }
+
+                    writer.add(entry);
+                    last = entry;
+                    timestamp++;
+                }
+            }
+
+            writer.finish(size);
+            return true;
+        }
+    }
+
+    /**
+     * Ordena o ficheiro em blocos guardados em ficheiros temporarios e junta-os
+     */
+    private static void sortRuns(String snapshot, String target, String map, long size) throws IOException {
+        String[] runs = new String[4];
+        int[] sizes = new int[4];
+        int count = 0;
+
+        try {
+            try (BufferedReader reader = new BufferedReader(new FileReader(snapshot))) {
+                ScoreEntry[] run = new ScoreEntry[RUN_SIZE];
+                int filled = 0;
+                String line;
+                long timestamp = 0;
+
+                while (true) {
+                    line = reader.readLine();
+                    ScoreEntry entry = line == null ? null : ScoreEntry.parse(line, map, timestamp + 1);
+
+                    if (entry != null) {
+                        run[filled++] = entry;
+                        timestamp++;
+                    }
+
+                    if (filled == run.length || (line == null && filled > 0)) {
+                        if (count == runs.length) {
+                            runs = Arrays.copyOf(runs, count * 2);
+                            sizes = Arrays.copyOf(sizes, count * 2);
+                        }
+
+                        runs[count] = target + ".run" + count;
+                        sizes[count] = filled;
+                        Arrays.sort(run, 0, filled, ScoreEntry.RANKING);
+                        writeRun(runs[count++], run, filled);
+                        filled = 0;
+                    }
+
+                    if (line == null) {
+                        break;
+                    }
+                }
+            }
+
+            mergeRuns(Arrays.copyOf(runs, count), sizes, target, map, size);
+        } finally {
+            for (int i = 0; i < count; i++) {
+                Files.deleteIfExists(Paths.get(runs[i]));
+            }
+        }
+    }
+
+    private static void writeRun(String path, ScoreEntry[] run, int filled) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            for (int i = 0; i < filled; i++) {
+                byte[] name = run[i].getName().getBytes(StandardCharsets.UTF_8);
+
+                out.writeInt(run[i].getScore());
+                out.writeLong(run[i].getTimestamp());
+                out.writeInt(name.length);
+                out.write(name);
+            }
+        }
+    }
+
+    private static ScoreEntry readRun(DataInputStream in, String map) throws IOException {
+        int score = in.readInt();
+        long timestamp = in.readLong();
+        byte[] name = new byte[in.readInt()];
+        in.readFully(name);
+
+        return new ScoreEntry(new String(name, StandardCharsets.UTF_8), map, ScoreEntry.UNKNOWN_DIFFICULTY, score, timestamp);
+    }
+
+    /**
+     * Junta os blocos ordenados com um heap das pontuacoes seguintes de cada bloco
+     */
+    private static void mergeRuns(String[] runs, int[] sizes, String target, String map, long size) throws IOException {
+        DataInputStream[] inputs = new DataInputStream[runs.length];
+        int[] remaining = Arrays.copyOf(sizes, runs.length);
+        ScoreEntry[] heads = new ScoreEntry[runs.length];
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, runs.length), (a, b) -> ScoreEntry.RANKING.compare(heads[a], heads[b]));
+
+        try (ScoreFile.Writer writer = new ScoreFile.Writer(target)) {
+            for (int i = 0; i < runs.length; i++) {
+                inputs[i] = new DataInputStream(new BufferedInputStream(new FileInputStream(runs[i])));
+                heads[i] = readRun(inputs[i], map);
+                remaining[i]--;
+                heap.add(i);
+            }
+
+            while (!heap.isEmpty()) {
+                int first = heap.poll();
+                writer.add(heads[first]);
+
+                if (remaining[first] > 0) {
+                    heads[first] = readRun(inputs[first], map);
+                    remaining[first]--;
+                    heap.add(first);
+                }
+            }
+
+            writer.finish(size);
+        } finally {
+            for (DataInputStream input : inputs) {
+                if (input != null) {
+                    input.close();
+                }
+            }
+        }
+    }
+}
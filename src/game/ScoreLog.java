@@ -0,0 +1,240 @@
+package game;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Registo de pontuacoes so de escrita no fim do ficheiro. Cada pontuacao e um registo
+ * binario com o tamanho, o momento, os pontos, a dificuldade, o nome do jogador em UTF-8
+ * e um CRC32, pelo que um registo escrito a meio quando o programa termina e detetado e
+ * descartado na leitura.
+ *
+ * As escritas sao sincronizadas com o disco em grupo: cada jogo espera que a sua
+ * pontuacao esteja no disco, mas um unico fsync serve todas as pontuacoes escritas ate
+ * esse momento, pelo que varios jogos a terminar ao mesmo tempo partilham o custo.
+ */
+class ScoreLog {
+
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int FIXED_BYTES = Long.BYTES + 2 * Integer.BYTES;
+    private static final int MAX_RECORD = 1 << 16;
+
+    private final String path;
+    private final FileChannel channel;
+    private final Object syncLock;
+    private long written;
+    private long synced;
+    private int records;
+
+    /**
+     * Metodo construtor que abre um registo para escrever no fim
+     *
+     * @param path path do registo
+     * @param records numero de registos ja existentes no ficheiro
+     * @throws IOException se nao for possivel abrir o ficheiro
+     */
+    ScoreLog(String path, int records) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.syncLock = new Object();
+        this.written = 0;
+        this.synced = 0;
+        this.records = records;
+    }
+
+    /**
+     * Metodo que le todos os registos validos de um ficheiro. Se o fim do ficheiro tiver um
+     * registo incompleto ou corrompido, o ficheiro e cortado antes dele, para que as novas
+     * escritas fiquem logo a seguir ao ultimo registo valido
+     *
+     * @param path path do registo
+     * @param map nome do mapa da classificacao
+     * @param action acao aplicada a cada pontuacao, pela ordem em que foram escritas
+     * @return numero de registos validos
+     * @throws IOException se nao for possivel ler o ficheiro
+     */
+    static int replay(String path, String map, Consumer<ScoreEntry> action) throws IOException {
+        return scan(path, map, action, true);
+    }
+
+    /**
+     * Metodo que le todos os registos validos de um ficheiro sem o alterar, para ler um
+     * registo que outro programa pode estar a escrever. Um registo incompleto no fim e
+     * ignorado
+     *
+     * @param path path do registo
+     * @param map nome do mapa da classificacao
+     * @param action acao aplicada a cada pontuacao, pela ordem em que foram escritas
+     * @return numero de registos validos
+     * @throws IOException se nao for possivel ler o ficheiro
+     */
+    static int read(String path, String map, Consumer<ScoreEntry> action) throws IOException {
+        return scan(path, map, action, false);
+    }
+
+    private static int scan(String path, String map, Consumer<ScoreEntry> action, boolean repair) throws IOException {
+        long valid = 0;
+        int count = 0;
+        boolean torn = false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            CRC32 crc = new CRC32();
+
+            while (true) {
+                int length;
+
+                try {
+                    length = in.readInt();
+                } catch (EOFException ex) {
+                    break;
+                }
+
+                if (length < FIXED_BYTES || length > MAX_RECORD) {
+                    torn = true;
+                    break;
+                }
+
+                byte[] payload = new byte[length];
+
+                try {
+                    in.readFully(payload);
+
+                    crc.reset();
+                    crc.update(payload, 0, length);
+
+                    if (in.readInt() != (int) crc.getValue()) {
+                        torn = true;
+                        break;
+                    }
+                } catch (EOFException ex) {
+                    torn = true;
+                    break;
+                }
+
+                ByteBuffer record = ByteBuffer.wrap(payload);
+                long timestamp = record.getLong();
+                int score = record.getInt();
+                int difficulty = record.getInt();
+                String name = new String(payload, FIXED_BYTES, length - FIXED_BYTES, StandardCharsets.UTF_8);
+
+                action.accept(new ScoreEntry(name, map, difficulty, score, timestamp));
+                valid += HEADER_BYTES + length + Integer.BYTES;
+                count++;
+            }
+        } catch (FileNotFoundException ex) {
+            return 0;
+        }
+
+        if (torn && repair) {
+            try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Metodo que escreve uma pontuacao no fim do registo, sem esperar pelo disco
+     *
+     * @param entry pontuacao
+     * @return numero de sequencia da escrita, a passar a {@link #sync(long)}
+     * @throws IOException se nao for possivel escrever no ficheiro
+     */
+    synchronized long append(ScoreEntry entry) throws IOException {
+        byte[] name = entry.getName().getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_BYTES + name.length;
+
+        if (length > MAX_RECORD) {
+            throw new IOException("The player's name is too long.");
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length + Integer.BYTES);
+        CRC32 crc = new CRC32();
+
+        record.putInt(length);
+        record.putLong(entry.getTimestamp());
+        record.putInt(entry.getScore());
+        record.putInt(entry.getDifficulty());
+        record.put(name);
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        while (record.hasRemaining()) {
+            this.channel.write(record);
+        }
+
+        this.records++;
+        return ++this.written;
+    }
+
+    /**
+     * Metodo que espera ate uma escrita estar no disco. Se outra thread ja tiver feito um
+     * fsync depois dessa escrita, nao faz nenhum
+     *
+     * @param sequence numero de sequencia devolvido por {@link #append(ScoreEntry)}
+     * @throws IOException se nao for possivel sincronizar o ficheiro
+     */
+    void sync(long sequence) throws IOException {
+        synchronized (this.syncLock) {
+            if (this.synced >= sequence) {
+                return;
+            }
+
+            long target;
+
+            synchronized (this) {
+                target = this.written;
+            }
+
+            this.channel.force(false);
+            this.synced = target;
+        }
+    }
+
+    /**
+     * Metodo que obtem o numero de registos do ficheiro
+     *
+     * @return numero de registos
+     */
+    synchronized int records() {
+        return this.records;
+    }
+
+    /**
+     * Metodo que obtem o path do registo
+     *
+     * @return path do registo
+     */
+    String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Metodo que sincroniza e fecha o registo
+     *
+     * @throws IOException se nao for possivel sincronizar o ficheiro
+     */
+    void close() throws IOException {
+        synchronized (this.syncLock) {
+            synchronized (this) {
+                this.channel.force(false);
+                this.synced = this.written;
+                this.channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import structures.ArrayUnorderedList;
+
+/**
+ * Melhor jogo possivel num mapa para uma posicao do escudo, calculado pelo {@link ShieldSolver}:
+ * a maior pontuacao final, o caminho que a obtem e se esse caminho apanha o escudo.
+ * Se o jogador puder voltar ao escudo por uma volta que custa menos do que o escudo, a
+ * pontuacao nao tem limite, e a solucao guarda o melhor caminho que apanha o escudo uma vez
+ */
+public class ShieldSolution {
+
+    private final MapTopology map;
+    private final int shieldRoom;
+    private final int shieldPoints;
+    private final boolean winnable;
+    private final int score;
+    private final int[] path;
+    private final boolean shieldPicked;
+    private final boolean unbounded;
+
+    /**
+     * Metodo construtor que cria uma solucao
+     *
+     * @param map mapa jogado
+     * @param shieldRoom identificador da divisao do escudo, ou -1 se nao houver escudo
+     * @param shieldPoints pontos de vida do escudo
+     * @param winnable true se for possivel chegar ao exterior com vida
+     * @param score maior pontuacao final, ou 0 se nao for possivel ganhar
+     * @param path identificadores das divisoes do melhor caminho, vazio se nao for possivel ganhar
+     * @param shieldPicked true se o melhor caminho apanhar o escudo
+     */
+    public ShieldSolution(MapTopology map, int shieldRoom, int shieldPoints, boolean winnable, int score, int[] path, boolean shieldPicked) {
+        this(map, shieldRoom, shieldPoints, winnable, score, path, shieldPicked, false);
+    }
+
+    /**
+     * Metodo construtor que cria uma solucao que pode nao ter limite
+     *
+     * @param map mapa jogado
+     * @param shieldRoom identificador da divisao do escudo, ou -1 se nao houver escudo
+     * @param shieldPoints pontos de vida do escudo
+     * @param winnable true se for possivel chegar ao exterior com vida
+     * @param score maior pontuacao final sem repetir o escudo, ou 0 se nao for possivel ganhar
+     * @param path identificadores das divisoes do melhor caminho, vazio se nao for possivel ganhar
+     * @param shieldPicked true se o melhor caminho apanhar o escudo
+     * @param unbounded true se voltar ao escudo aumentar sempre a pontuacao
+     */
+    public ShieldSolution(MapTopology map, int shieldRoom, int shieldPoints, boolean winnable, int score, int[] path, boolean shieldPicked, boolean unbounded) {
+        this.map = map;
+        this.shieldRoom = shieldRoom;
+        this.shieldPoints = shieldPoints;
+        this.winnable = winnable;
+        this.score = score;
+        this.path = path;
+        this.shieldPicked = shieldPicked;
+        this.unbounded = unbounded;
+    }
+
+    /**
+     * Metodo que obtem o identificador da divisao do escudo
+     *
+     * @return identificador da divisao, ou -1 se nao houver escudo
+     */
+    public int getShieldRoom() {
+        return this.shieldRoom;
+    }
+
+    /**
+     * Metodo que obtem os pontos de vida do escudo
+     *
+     * @return pontos do escudo
+     */
+    public int getShieldPoints() {
+        return this.shieldPoints;
+    }
+
+    /**
+     * Metodo que verifica se e possivel chegar ao exterior com vida
+     *
+     * @return true se o jogo puder ser ganho, false caso contrario
+     */
+    public boolean isWinnable() {
+        return this.winnable;
+    }
+
+    /**
+     * Metodo que obtem a maior pontuacao final possivel
+     *
+     * @return pontuacao final, ou 0 se nao for possivel ganhar
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Metodo que verifica se o melhor caminho apanha o escudo
+     *
+     * @return true se o escudo for apanhado
+     */
+    public boolean isShieldPicked() {
+        return this.shieldPicked;
+    }
+
+    /**
+     * Metodo que verifica se a pontuacao nao tem limite, porque o jogador pode voltar ao
+     * escudo por uma volta que custa menos do que o escudo e sair depois para o exterior
+     *
+     * @return true se a pontuacao nao tiver limite; {@link #getScore()} e entao a pontuacao
+     * do melhor caminho que apanha o escudo uma unica vez
+     */
+    public boolean isUnbounded() {
+        return this.unbounded;
+    }
+
+    /**
+     * Metodo que obtem o numero de movimentos do melhor caminho
+     *
+     * @return numero de movimentos, ou 0 se nao for possivel ganhar
+     */
+    public int getSteps() {
+        return Math.max(0, this.path.length - 1);
+    }
+
+    /**
+     * Metodo que obtem os identificadores das divisoes do melhor caminho
+     *
+     * @return copia do caminho
+     */
+    public int[] getPathIds() {
+        return this.path.clone();
+    }
+
+    /**
+     * Metodo que obtem as divisoes do melhor caminho
+     *
+     * @return divisoes do caminho, a comecar na divisao inicial
+     * @throws ElementDoesntExistException
+     */
+    public ArrayUnorderedList<String> getPath() throws ElementDoesntExistException {
+        ArrayUnorderedList<String> rooms = new ArrayUnorderedList<>();
+
+        for (int room : this.path) {
+            rooms.addToRear(this.map.getRoom(room));
+        }
+
+        return rooms;
+    }
+
+    /**
+     * Metodo toString
+     *
+     * @return representacao textual da solucao
+     */
+    @Override
+    public String toString() {
+        return "Shield: " + this.shieldRoom + " (" + this.shieldPoints + "); Winnable: " + this.winnable
+                + "; Score: " + this.score + (this.unbounded ? " (unbounded)" : "") + "; Shield picked: " + this.shieldPicked
+                + "; Steps: " + getSteps();
+    }
+}
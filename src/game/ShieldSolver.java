@@ -0,0 +1,306 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import exceptions.EmptyCollectionException;
+import structures.IndexedHeap;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Classe que calcula o melhor jogo possivel num mapa, tendo em conta o escudo.
+ *
+ * O menor caminho ate ao exterior ignora o escudo, mas um desvio pela divisao do escudo
+ * pode acabar com mais pontos. A pesquisa e feita sobre um grafo de 2V estados, com uma
+ * copia das divisoes antes e outra depois de apanhar o escudo: entrar na divisao do escudo
+ * na primeira copia passa para a segunda. O algoritmo de Dijkstra percorre os estados com
+ * arrays primitivos e so continua a partir de estados em que o jogador ainda esta vivo,
+ * pelo que o caminho encontrado nunca passa por zero pontos de vida.
+ *
+ * No jogo manual, e por omissao no {@link GameSimulator}, o escudo da pontos sempre que o
+ * jogador entra na sua divisao. Voltar ao escudo so compensa se a volta custar menos do que
+ * o escudo, e nesse caso a pontuacao nao tem limite: uma segunda pesquisa a partir do
+ * escudo procura essa volta e marca a solucao com {@link ShieldSolution#isUnbounded()}.
+ * Sem essa volta, o melhor jogo apanha o escudo no maximo uma vez e e o da primeira pesquisa.
+ *
+ * Os movimentos e os danos de cada divisao sao copiados uma unica vez para linhas
+ * comprimidas, e cada pesquisa usa os seus proprios arrays, pelo que o mesmo solver pode
+ * avaliar varias posicoes do escudo ao mesmo tempo.
+ */
+public class ShieldSolver {
+
+    private final MapTopology map;
+    private final int difficulty;
+    private final ForkJoinPool pool;
+    private final int start;
+    private final int points;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] damages;
+
+    /**
+     * Metodo construtor que cria um solver a partir da entrada do mapa, no pool comum
+     *
+     * @param map mapa a ser jogado
+     * @param difficulty dificuldade do jogo
+     * @throws ElementDoesntExistException
+     */
+    public ShieldSolver(MapTopology map, int difficulty) throws ElementDoesntExistException {
+        this(map, map.getEntranceId(), map.getPoints(), difficulty, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Metodo construtor que cria um solver
+     *
+     * @param map mapa a ser jogado
+     * @param start identificador da divisao inicial
+     * @param points pontos de vida iniciais
+     * @param difficulty dificuldade do jogo
+     * @param pool pool onde as posicoes do escudo sao avaliadas
+     * @throws ElementDoesntExistException
+     */
+    public ShieldSolver(MapTopology map, int start, int points, int difficulty, ForkJoinPool pool) throws ElementDoesntExistException {
+        if (difficulty < 1) {
+            throw new IllegalArgumentException("The difficulty must be at least 1.");
+        }
+
+        int n = map.size();
+        int total = 0;
+
+        this.map = map;
+        this.difficulty = difficulty;
+        this.pool = pool;
+        this.start = start;
+        this.points = points;
+        this.offsets = new int[n + 1];
+
+        for (int i = 0; i < n; i++) {
+            total += map.getMoves(i).size();
+        }
+
+        this.targets = new int[total];
+        this.damages = new int[total];
+
+        for (int i = 0, e = 0; i < n; i++) {
+            RoomList moves = map.getMoves(i);
+            this.offsets[i] = e;
+
+            for (int j = 0; j < moves.size(); j++, e++) {
+                this.targets[e] = moves.getId(j);
+                this.damages[e] = map.getDamage(i, this.targets[e]) * difficulty;
+            }
+        }
+
+        this.offsets[n] = total;
+    }
+
+    /**
+     * Metodo que obtem o mapa jogado pelo solver
+     *
+     * @return o mapa
+     */
+    public MapTopology getMap() {
+        return this.map;
+    }
+
+    /**
+     * Metodo que obtem a dificuldade usada pelo solver
+     *
+     * @return dificuldade do jogo
+     */
+    public int getDifficulty() {
+        return this.difficulty;
+    }
+
+    /**
+     * Metodo que calcula o melhor jogo sem escudo
+     *
+     * @return melhor jogo
+     */
+    public ShieldSolution solve() {
+        return solve(-1, 0);
+    }
+
+    /**
+     * Metodo que calcula o melhor jogo com o escudo numa divisao
+     *
+     * @param shieldRoom identificador da divisao do escudo, ou -1 se nao houver escudo
+     * @param shieldPoints pontos de vida do escudo
+     * @return melhor jogo
+     */
+    public ShieldSolution solve(int shieldRoom, int shieldPoints) {
+        int n = this.map.size();
+
+        if (!this.map.isRoom(this.start)) {
+            return new ShieldSolution(this.map, shieldRoom, shieldPoints, false, 0, new int[0], false);
+        }
+
+        //o estado room + n e a divisao room depois de apanhar o escudo
+        double[] dist = new double[2 * n];
+        int[] prev = new int[2 * n];
+        IndexedHeap heap = new IndexedHeap(2 * n);
+
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        dist[this.start] = 0;
+        heap.insert(this.start, 0);
+
+        try {
+            while (!heap.isEmpty()) {
+                int state = heap.removeMin();
+                int layer = state < n ? 0 : 1;
+                int room = state - layer * n;
+
+                //o jogo acaba no exterior, e um estado sem vida nao pode continuar
+                if (room == MapTopology.EXTERIOR || !isAlive(dist[state], layer, shieldPoints)) {
+                    continue;
+                }
+
+                for (int e = this.offsets[room]; e < this.offsets[room + 1]; e++) {
+                    int next = this.targets[e];
+                    int target = layer == 0 && next == shieldRoom ? next + n : next + layer * n;
+                    double candidate = dist[state] + this.damages[e];
+
+                    if (candidate < dist[target]) {
+                        dist[target] = candidate;
+                        prev[target] = state;
+                        heap.insertOrDecrease(target, candidate);
+                    }
+                }
+            }
+        } catch (EmptyCollectionException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        int exit = MapTopology.EXTERIOR;
+        boolean plain = isAlive(dist[exit], 0, shieldPoints);
+        boolean shielded = isAlive(dist[exit + n], 1, shieldPoints);
+
+        if (!plain && !shielded) {
+            return new ShieldSolution(this.map, shieldRoom, shieldPoints, false, 0, new int[0], false);
+        }
+
+        int plainScore = plain ? (int) (this.points - dist[exit]) : Integer.MIN_VALUE;
+        int shieldScore = shielded ? (int) (this.points + shieldPoints - dist[exit + n]) : Integer.MIN_VALUE;
+        boolean picked = shieldScore > plainScore;
+        boolean unbounded = shieldRoom != -1 && isAlive(dist[shieldRoom + n], 1, shieldPoints)
+                && hasProfitableLoop(shieldRoom, shieldPoints, this.points + shieldPoints - dist[shieldRoom + n]);
+
+        return new ShieldSolution(this.map, shieldRoom, shieldPoints, true, picked ? shieldScore : plainScore,
+                pathTo(prev, picked ? exit + n : exit, n), picked, unbounded);
+    }
+
+    /**
+     * Verifica se, chegando ao escudo com uma pontuacao, o jogador pode voltar a ele com vida
+     * por uma volta que custa menos do que o escudo, e se consegue depois sair para o exterior
+     */
+    private boolean hasProfitableLoop(int shieldRoom, int shieldPoints, double arrival) {
+        int n = this.map.size();
+        double[] dist = new double[n];
+        IndexedHeap heap = new IndexedHeap(n);
+
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[shieldRoom] = 0;
+        heap.insert(shieldRoom, 0);
+
+        try {
+            while (!heap.isEmpty()) {
+                int room = heap.removeMin();
+
+                if (room == MapTopology.EXTERIOR) {
+                    continue;
+                }
+
+                for (int e = this.offsets[room]; e < this.offsets[room + 1]; e++) {
+                    int next = this.targets[e];
+                    double candidate = dist[room] + this.damages[e];
+
+                    if (next != shieldRoom && candidate < dist[next]) {
+                        dist[next] = candidate;
+                        heap.insertOrDecrease(next, candidate);
+                    }
+                }
+            }
+        } catch (EmptyCollectionException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        if (dist[MapTopology.EXTERIOR] == Double.POSITIVE_INFINITY) {
+            return false;
+        }
+
+        //o caminho mais curto ate a ultima divisao da volta e o que gasta menos vida pelo caminho
+        for (int room = 0; room < n; room++) {
+            if (room == MapTopology.EXTERIOR || arrival - dist[room] <= 0) {
+                continue;
+            }
+
+            for (int e = this.offsets[room]; e < this.offsets[room + 1]; e++) {
+                if (this.targets[e] == shieldRoom && dist[room] + this.damages[e] < shieldPoints) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Metodo que calcula o melhor jogo para cada divisao onde o escudo pode ser colocado
+     * no inicio do jogo, avaliando as divisoes em paralelo
+     *
+     * @param shieldPoints pontos de vida do escudo
+     * @return melhor jogo para cada divisao, pela ordem de {@link MapTopology#getShieldRooms(int)}
+     */
+    public ShieldSolution[] solveAll(int shieldPoints) {
+        return solveAll(this.map.getShieldRooms(this.start), shieldPoints);
+    }
+
+    /**
+     * Metodo que calcula o melhor jogo para varias posicoes do escudo, avaliando as posicoes em paralelo
+     *
+     * @param shieldRooms identificadores das divisoes do escudo
+     * @param shieldPoints pontos de vida do escudo
+     * @return melhor jogo para cada divisao, pela mesma ordem
+     */
+    public ShieldSolution[] solveAll(int[] shieldRooms, int shieldPoints) {
+        try {
+            return this.pool.submit(() -> IntStream.range(0, shieldRooms.length).parallel()
+                    .mapToObj(i -> solve(shieldRooms[i], shieldPoints))
+                    .toArray(ShieldSolution[]::new)).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Verifica se o jogador ainda tem vida depois de um dano acumulado
+     */
+    private boolean isAlive(double damage, int layer, int shieldPoints) {
+        return this.points + layer * shieldPoints - damage > 0;
+    }
+
+    /**
+     * Reconstroi as divisoes do caminho ate um estado
+     */
+    private int[] pathTo(int[] prev, int state, int n) {
+        int length = 0;
+
+        for (int s = state; s != -1; s = prev[s]) {
+            length++;
+        }
+
+        int[] path = new int[length];
+
+        for (int s = state, i = length - 1; s != -1; s = prev[s], i--) {
+            path[i] = s % n;
+        }
+
+        return path;
+    }
+}
@@ -0,0 +1,124 @@
+package game;
+
+import exceptions.ElementDoesntExistException;
+import structures.ArrayUnorderedList;
+
+/**
+ * Resultado de um jogo simulado pelo {@link GameSimulator}: como acabou, a pontuacao
+ * final e as divisoes por onde o jogador passou
+ */
+public class SimulationResult {
+
+    private final MapTopology map;
+    private final GameOutcome outcome;
+    private final int score;
+    private final int[] path;
+    private final boolean shieldPicked;
+
+    /**
+     * Metodo construtor que cria o resultado de um jogo
+     *
+     * @param map mapa jogado
+     * @param outcome como o jogo acabou
+     * @param score pontuacao final
+     * @param path identificadores das divisoes visitadas, a comecar na divisao inicial
+     * @param shieldPicked true se o jogador apanhou o escudo
+     */
+    public SimulationResult(MapTopology map, GameOutcome outcome, int score, int[] path, boolean shieldPicked) {
+        this.map = map;
+        this.outcome = outcome;
+        this.score = score;
+        this.path = path;
+        this.shieldPicked = shieldPicked;
+    }
+
+    /**
+     * Metodo que obtem como o jogo acabou
+     *
+     * @return resultado do jogo
+     */
+    public GameOutcome getOutcome() {
+        return this.outcome;
+    }
+
+    /**
+     * Metodo que verifica se o jogador ganhou
+     *
+     * @return true se o jogador chegou ao exterior, false caso contrario
+     */
+    public boolean isWon() {
+        return this.outcome == GameOutcome.WON;
+    }
+
+    /**
+     * Metodo que obtem a pontuacao final do jogador
+     *
+     * @return pontuacao final
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Metodo que obtem o numero de movimentos feitos
+     *
+     * @return numero de movimentos
+     */
+    public int getSteps() {
+        return this.path.length - 1;
+    }
+
+    /**
+     * Metodo que verifica se o jogador apanhou o escudo
+     *
+     * @return true se o escudo foi apanhado, false caso contrario
+     */
+    public boolean isShieldPicked() {
+        return this.shieldPicked;
+    }
+
+    /**
+     * Metodo que obtem os identificadores das divisoes visitadas, a comecar na divisao inicial
+     *
+     * @return copia dos identificadores das divisoes visitadas
+     */
+    public int[] getPathIds() {
+        return this.path.clone();
+    }
+
+    /**
+     * Metodo que obtem o identificador de uma divisao do caminho, sem copiar o caminho
+     *
+     * @param i posicao no caminho, de 0 ate {@link #getSteps()}
+     * @return identificador da divisao
+     */
+    public int getPathId(int i) {
+        return this.path[i];
+    }
+
+    /**
+     * Metodo que obtem os nomes das divisoes visitadas, a comecar na divisao inicial
+     *
+     * @return divisoes visitadas
+     * @throws ElementDoesntExistException
+     */
+    public ArrayUnorderedList<String> getPath() throws ElementDoesntExistException {
+        ArrayUnorderedList<String> rooms = new ArrayUnorderedList<>();
+
+        for (int room : this.path) {
+            rooms.addToRear(this.map.getRoom(room));
+        }
+
+        return rooms;
+    }
+
+    /**
+     * Metodo toString
+     *
+     * @return representacao textual do resultado
+     */
+    @Override
+    public String toString() {
+        return this.outcome + "; Score: " + this.score + "; Steps: " + getSteps();
+    }
+}
@@ -3,7 +3,7 @@ package interfaces;
 import exceptions.ElementDoesntExistException;
 import exceptions.EmptyCollectionException;
 import exceptions.InvalidOperationException;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
  * Interface GameInterface
@@ -19,12 +19,12 @@ public interface GameInterface {
     /**
      * Método que atribui um mapa ao jogo
      * @param path path onde se encontra o mapa a ser jogado
-     * @throws FileNotFoundException
+     * @throws IOException
      * @throws exceptions.ElementDoesntExistException
      * @throws exceptions.InvalidOperationException
      * @throws exceptions.EmptyCollectionException
      */
-    void setMap(String path) throws FileNotFoundException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException;
+    void setMap(String path) throws IOException, ElementDoesntExistException, InvalidOperationException, EmptyCollectionException;
 
     /**
      * Metodo que permite ao jogador mover-se pelo mapa
@@ -7,6 +7,7 @@ import exceptions.InvalidOperationException;
 import exceptions.UnknownPathException;
 import game.Leaderboard;
 import game.Map;
+import game.MapRegistry;
 
 import java.io.IOException;
 import java.util.Scanner;
@@ -43,9 +44,8 @@ public class RecursoED {
                     break;
 
                 case 2:
-                    Map map = new Map();
                     String path = "mapa_defesa01.json";
-                    map.readMapFromJson(path);
+                    Map map = MapRegistry.getDefault().get(path);
                     System.out.println("*----------------------*");
                     System.out.println(map.toString());
                     break;
@@ -0,0 +1,69 @@
+package structures;
+
+import exceptions.EmptyCollectionException;
+import java.util.Arrays;
+
+/**
+ * A* search over an {@link AdjacencyStorage}. Vertices are expanded in order of
+ * their distance from the source plus the heuristic estimate to the target,
+ * so vertices that lead away from the target are rarely expanded.
+ */
+public class AStarSearch {
+    private final AdjacencyStorage graph;
+
+    /**
+     * Creates a search over the given edges
+     * @param graph the edges to search
+     */
+    public AStarSearch(AdjacencyStorage graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Searches the shortest path from the source to the target
+     * @param source the source vertex
+     * @param target the target vertex
+     * @param heuristic the estimate of the remaining distance to the target
+     * @return the search tree; its settled count is the number of expanded vertices
+     * @throws EmptyCollectionException
+     */
+    public ShortestPathTree run(int source, int target, Heuristic heuristic) throws EmptyCollectionException {
+        int n = this.graph.size();
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        IndexedHeap open = new IndexedHeap(n);
+        int expanded = 0;
+
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+        open.insert(source, heuristic.estimate(source));
+
+        while (!open.isEmpty()) {
+            int u = open.removeMin();
+            expanded++;
+
+            if (u == target) {
+                break;
+            }
+
+            for (int e = this.graph.firstEdge(u); e != -1; e = this.graph.nextEdge(u, e)) {
+                int v = this.graph.edgeTarget(u, e);
+                double candidate = dist[u] + this.graph.edgeWeight(u, e);
+
+                //um vértice já expandido volta a ser aberto se a heurística não for consistente
+                if (candidate < dist[v]) {
+                    double estimate = heuristic.estimate(v);
+
+                    if (estimate != Double.POSITIVE_INFINITY) {
+                        dist[v] = candidate;
+                        prev[v] = u;
+                        open.insertOrDecrease(v, candidate + estimate);
+                    }
+                }
+            }
+        }
+
+        return new ShortestPathTree(source, dist, prev, expanded);
+    }
+}
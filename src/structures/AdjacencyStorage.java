@@ -0,0 +1,168 @@
+package structures;
+
+/**
+ * Storage strategy for the directed, weighted edges of a {@link Graph}.
+ * Vertices are addressed by their index in the graph.
+ *
+ * Neighbours are enumerated through edge cursors, without allocating:
+ * <pre>
+ * for (int e = storage.firstEdge(v); e != -1; e = storage.nextEdge(v, e)) {
+ *     int target = storage.edgeTarget(v, e);
+ * }
+ * </pre>
+ */
+public interface AdjacencyStorage {
+    /**
+     * Appends a new vertex, without edges, at index {@link #size()}
+     */
+    public void addVertex();
+
+    /**
+     * Removes the vertex at the given index together with all its edges.
+     * Vertices after it are shifted one position to the left
+     * @param index the index of the vertex to remove
+     */
+    public void removeVertex(int index);
+
+    /**
+     * Returns the number of vertices in this storage
+     * @return the number of vertices
+     */
+    public int size();
+
+    /**
+     * Returns the number of edges in this storage
+     * @return the number of edges
+     */
+    public int edgeCount();
+
+    /**
+     * Returns an estimate of the heap memory held by this storage
+     * @return the estimated size in bytes
+     */
+    public long memoryBytes();
+
+    /**
+     * Returns the kind of this storage
+     * @return the storage kind
+     */
+    public GraphStorage kind();
+
+    /**
+     * Inserts an edge, or updates its weight if it already exists
+     * @param from the source vertex
+     * @param to the target vertex
+     * @param weight the weight of the edge
+     * @return true if the edge was not present before
+     */
+    public boolean addEdge(int from, int to, double weight);
+
+    /**
+     * Removes an edge
+     * @param from the source vertex
+     * @param to the target vertex
+     * @return true if the edge existed
+     */
+    public boolean removeEdge(int from, int to);
+
+    /**
+     * Returns true if there is an edge between the two vertices
+     * @param from the source vertex
+     * @param to the target vertex
+     * @return true if the edge exists
+     */
+    public boolean hasEdge(int from, int to);
+
+    /**
+     * Changes the weight of an existing edge. Has no effect if the edge does not exist
+     * @param from the source vertex
+     * @param to the target vertex
+     * @param weight the new weight
+     * @return true if the edge exists
+     */
+    public boolean setWeight(int from, int to, double weight);
+
+    /**
+     * Returns the weight of an edge, or 0 if the edge does not exist
+     * @param from the source vertex
+     * @param to the target vertex
+     * @return the weight of the edge
+     */
+    public double getWeight(int from, int to);
+
+    /**
+     * Returns the number of edges leaving a vertex
+     * @param vertex the vertex
+     * @return the out degree of the vertex
+     */
+    public int outDegree(int vertex);
+
+    /**
+     * Returns the number of edges arriving at a vertex
+     * @param vertex the vertex
+     * @return the in degree of the vertex
+     */
+    public int inDegree(int vertex);
+
+    /**
+     * Returns a cursor to the first edge leaving a vertex
+     * @param vertex the vertex
+     * @return the cursor, or -1 if the vertex has no outgoing edges
+     */
+    public int firstEdge(int vertex);
+
+    /**
+     * Returns a cursor to the edge after the given one
+     * @param vertex the vertex the edges leave from
+     * @param cursor the current cursor
+     * @return the next cursor, or -1 if there are no more edges
+     */
+    public int nextEdge(int vertex, int cursor);
+
+    /**
+     * Returns the target of the edge at the given cursor
+     * @param vertex the vertex the edge leaves from
+     * @param cursor the cursor of the edge
+     * @return the index of the target vertex
+     */
+    public int edgeTarget(int vertex, int cursor);
+
+    /**
+     * Returns the weight of the edge at the given cursor
+     * @param vertex the vertex the edge leaves from
+     * @param cursor the cursor of the edge
+     * @return the weight of the edge
+     */
+    public double edgeWeight(int vertex, int cursor);
+
+    /**
+     * Returns a cursor to the first edge arriving at a vertex
+     * @param vertex the vertex
+     * @return the cursor, or -1 if the vertex has no incoming edges
+     */
+    public int firstInEdge(int vertex);
+
+    /**
+     * Returns a cursor to the incoming edge after the given one
+     * @param vertex the vertex the edges arrive at
+     * @param cursor the current cursor
+     * @return the next cursor, or -1 if there are no more edges
+     */
+    public int nextInEdge(int vertex, int cursor);
+
+    /**
+     * Returns the source of the incoming edge at the given cursor
+     * @param vertex the vertex the edge arrives at
+     * @param cursor the cursor of the edge
+     * @return the index of the source vertex
+     */
+    public int inEdgeSource(int vertex, int cursor);
+
+    /**
+     * Returns the weight of the incoming edge at the given cursor
+     * @param vertex the vertex the edge arrives at
+     * @param cursor the cursor of the edge
+     * @return the weight of the edge
+     */
+    public double inEdgeWeight(int vertex, int cursor);
+}
@@ -0,0 +1,173 @@
+package structures;
+
+import exceptions.EmptyCollectionException;
+import exceptions.InvalidOperationException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest path distances between every pair of vertices, stored in flat
+ * primitive arrays of V * V entries together with the previous vertex of each
+ * path, so each row is the shortest path tree of one source.
+ *
+ * Small graphs are solved with Floyd-Warshall in O(V^3). Larger ones run one
+ * Dijkstra per source, in parallel, in O(V (V + E) log V) total work.
+ */
+public class AllPairsShortestPaths {
+    /**
+     * Largest number of vertices solved with Floyd-Warshall
+     */
+    public static final int FLOYD_WARSHALL_LIMIT = 256;
+
+    private final int n;
+    private final double[] dist;
+    private final int[] prev;
+
+    private AllPairsShortestPaths(int n) {
+        this.n = n;
+        this.dist = new double[n * n];
+        this.prev = new int[n * n];
+        Arrays.fill(this.dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(this.prev, -1);
+    }
+
+    /**
+     * Computes the shortest paths between every pair of vertices
+     * @param graph the edges of the graph
+     * @return the all pairs table
+     * @throws InvalidOperationException if the table would not fit in an array
+     */
+    public static AllPairsShortestPaths compute(AdjacencyStorage graph) throws InvalidOperationException {
+        int n = graph.size();
+
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new InvalidOperationException("Too many vertices for an all pairs table.");
+        }
+
+        AllPairsShortestPaths table = new AllPairsShortestPaths(n);
+
+        if (n <= FLOYD_WARSHALL_LIMIT) {
+            table.floydWarshall(graph);
+        } else {
+            IntStream.range(0, n).parallel().forEach(source -> table.dijkstra(graph, source));
+        }
+
+        return table;
+    }
+
+    private void floydWarshall(AdjacencyStorage graph) {
+        for (int i = 0; i < this.n; i++) {
+            for (int e = graph.firstEdge(i); e != -1; e = graph.nextEdge(i, e)) {
+                int j = graph.edgeTarget(i, e);
+
+                if (j != i) {
+                    this.dist[i * this.n + j] = graph.edgeWeight(i, e);
+                    this.prev[i * this.n + j] = i;
+                }
+            }
+
+            this.dist[i * this.n + i] = 0;
+        }
+
+        for (int k = 0; k < this.n; k++) {
+            int rowK = k * this.n;
+
+            for (int i = 0; i < this.n; i++) {
+                int rowI = i * this.n;
+                double throughK = this.dist[rowI + k];
+
+                if (throughK == Double.POSITIVE_INFINITY || i == k) {
+                    continue;
+                }
+
+                for (int j = 0; j < this.n; j++) {
+                    double candidate = throughK + this.dist[rowK + j];
+
+                    if (candidate < this.dist[rowI + j]) {
+                        this.dist[rowI + j] = candidate;
+                        this.prev[rowI + j] = this.prev[rowK + j];
+                    }
+                }
+            }
+        }
+    }
+
+    private void dijkstra(AdjacencyStorage graph, int source) {
+        ShortestPathTree tree;
+
+        try {
+            tree = new DijkstraSearch(graph).run(source);
+        } catch (EmptyCollectionException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        int row = source * this.n;
+
+        for (int v = 0; v < this.n; v++) {
+            this.dist[row + v] = tree.getDistance(v);
+            this.prev[row + v] = tree.getPrevious(v);
+        }
+    }
+
+    /**
+     * Returns the number of vertices of the table
+     * @return the number of vertices
+     */
+    public int size() {
+        return this.n;
+    }
+
+    /**
+     * Returns the weight of the shortest path between two vertices
+     * @param from the first vertex
+     * @param to the second vertex
+     * @return the distance, or infinity if there is no path
+     */
+    public double getDistance(int from, int to) {
+        return this.dist[from * this.n + to];
+    }
+
+    /**
+     * Returns the vertex before the last one on the shortest path between two vertices
+     * @param from the first vertex
+     * @param to the second vertex
+     * @return the previous vertex, or -1 if there is no path or both vertices are the same
+     */
+    public int getPrevious(int from, int to) {
+        return this.prev[from * this.n + to];
+    }
+
+    /**
+     * Rebuilds the shortest path between two vertices
+     * @param from the first vertex
+     * @param to the second vertex
+     * @return the vertices of the path, or null if there is no path
+     */
+    public int[] pathTo(int from, int to) {
+        if (getDistance(from, to) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        int length = 1;
+
+        for (int v = to; v != from; v = getPrevious(from, v)) {
+            length++;
+        }
+
+        int[] path = new int[length];
+
+        for (int v = to, i = length - 1; i >= 0; v = getPrevious(from, v), i--) {
+            path[i] = v;
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns an estimate of the heap memory held by this table
+     * @return the estimated size in bytes
+     */
+    public long memoryBytes() {
+        return 24 + 16 + 8L * this.dist.length + 16 + 4L * this.prev.length;
+    }
+}
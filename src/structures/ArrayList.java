@@ -38,7 +38,7 @@ public class ArrayList<T> implements ListADT<T> {
     }
     
     public void expandCapacity(){
-        T[] expandedList = (T[]) (new Object[this.DEFAULT_CAPACITY * 2]);
+        T[] expandedList = (T[]) (new Object[Math.max(DEFAULT_CAPACITY, this.list.length * 2)]);
 
         for(int i = 0; i < this.size(); i++) {
             expandedList[i] = this.list[i];
@@ -21,7 +21,7 @@ public class ArrayOrderedList<T> extends ArrayList<T> implements OrderedListADT<
     }
 
     public void expandCapacity() {
-        T[] newList = (T[]) (new Object[DEFAULT_CAPACITY * 2]);
+        T[] newList = (T[]) (new Object[Math.max(DEFAULT_CAPACITY, this.list.length * 2)]);
 
         for (int i = 0; i < this.rear; i++) {
             newList[i] = this.list[i];
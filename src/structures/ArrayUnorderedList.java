@@ -7,7 +7,7 @@ public class ArrayUnorderedList<T> extends ArrayList<T> implements UnorderedList
      * Usado apenas para teste. Expande a capacidade desta fila
      */
     public void expandCapacity() {
-        T[] newList = (T[]) (new Object[DEFAULT_CAPACITY * 2]);
+        T[] newList = (T[]) (new Object[Math.max(DEFAULT_CAPACITY, this.list.length * 2)]);
 
         for (int i = 0; i < this.rear; i++) {
             newList[i] = this.list[i];
@@ -0,0 +1,114 @@
+package structures;
+
+import exceptions.EmptyCollectionException;
+import java.util.Arrays;
+
+/**
+ * Bidirectional Dijkstra between two vertices of an {@link AdjacencyStorage}.
+ * One search grows forward from the source over outgoing edges and another grows
+ * backward from the target over incoming edges. The search stops when the sum of
+ * the smallest keys of both heaps reaches the best path found through a vertex
+ * reached by both sides, so each side only explores about half of the radius.
+ */
+public class BidirectionalSearch {
+    private final AdjacencyStorage graph;
+
+    /**
+     * Creates a search over the given edges
+     * @param graph the edges to search
+     */
+    public BidirectionalSearch(AdjacencyStorage graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Searches the shortest path from the source to the target. The returned tree
+     * only holds the path to the target, its distance and the number of vertices
+     * expanded by both sides
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return the search tree
+     * @throws EmptyCollectionException
+     */
+    public ShortestPathTree run(int source, int target) throws EmptyCollectionException {
+        int n = this.graph.size();
+        double[] distForward = new double[n];
+        double[] distBackward = new double[n];
+        int[] prev = new int[n];
+        int[] next = new int[n];
+        IndexedHeap forward = new IndexedHeap(n);
+        IndexedHeap backward = new IndexedHeap(n);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int expanded = 0;
+
+        Arrays.fill(distForward, Double.POSITIVE_INFINITY);
+        Arrays.fill(distBackward, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        Arrays.fill(next, -1);
+        distForward[source] = 0;
+        distBackward[target] = 0;
+        forward.insert(source, 0);
+        backward.insert(target, 0);
+
+        if (source == target) {
+            best = 0;
+            meeting = source;
+        }
+
+        while (!forward.isEmpty() && !backward.isEmpty()
+                && forward.minKey() + backward.minKey() < best) {
+            expanded++;
+
+            //expande o lado com a fronteira mais próxima
+            if (forward.minKey() <= backward.minKey()) {
+                int u = forward.removeMin();
+
+                for (int e = this.graph.firstEdge(u); e != -1; e = this.graph.nextEdge(u, e)) {
+                    int v = this.graph.edgeTarget(u, e);
+                    double candidate = distForward[u] + this.graph.edgeWeight(u, e);
+
+                    if (candidate < distForward[v]) {
+                        distForward[v] = candidate;
+                        prev[v] = u;
+                        forward.insertOrDecrease(v, candidate);
+
+                        if (candidate + distBackward[v] < best) {
+                            best = candidate + distBackward[v];
+                            meeting = v;
+                        }
+                    }
+                }
+            } else {
+                int u = backward.removeMin();
+
+                for (int e = this.graph.firstInEdge(u); e != -1; e = this.graph.nextInEdge(u, e)) {
+                    int v = this.graph.inEdgeSource(u, e);
+                    double candidate = distBackward[u] + this.graph.inEdgeWeight(u, e);
+
+                    if (candidate < distBackward[v]) {
+                        distBackward[v] = candidate;
+                        next[v] = u;
+                        backward.insertOrDecrease(v, candidate);
+
+                        if (distForward[v] + candidate < best) {
+                            best = distForward[v] + candidate;
+                            meeting = v;
+                        }
+                    }
+                }
+            }
+        }
+
+        //junta a metade de trás ao caminho da frente, a partir do ponto de encontro
+        if (meeting != -1) {
+            for (int v = meeting; v != target; v = next[v]) {
+                prev[next[v]] = v;
+            }
+
+            distForward[target] = best;
+        }
+
+        return new ShortestPathTree(source, distForward, prev, expanded);
+    }
+}
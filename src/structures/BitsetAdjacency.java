@@ -0,0 +1,389 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency matrix packed into a {@code long[]}, one bit per cell and 64 cells per
+ * word, which takes 8 times less memory than a {@code boolean[][]} and has no
+ * array header per row. Outgoing neighbours are scanned a word at a time with
+ * {@link Long#numberOfTrailingZeros(long)}, and whole rows can be combined with
+ * other bitsets, so a breadth first frontier expands 64 candidates per operation.
+ *
+ * Incoming edges are found by testing one bit per row, in O(V). Weights are
+ * kept in a row of doubles that is only allocated once the row gets a non zero weight.
+ */
+public class BitsetAdjacency implements AdjacencyStorage {
+    private long[] bits;
+    private int stride;
+    private int capacity;
+    private double[][] weight;
+    private int[] outDegrees;
+    private int[] inDegrees;
+    private int count;
+    private int edges;
+
+    /**
+     * Creates an empty matrix with room for the given number of vertices
+     * @param capacity the initial capacity
+     */
+    public BitsetAdjacency(int capacity) {
+        this.capacity = Math.max(64, (capacity + 63) & ~63);
+        this.stride = this.capacity >>> 6;
+        this.bits = new long[this.capacity * this.stride];
+        this.weight = new double[this.capacity][];
+        this.outDegrees = new int[this.capacity];
+        this.inDegrees = new int[this.capacity];
+        this.count = 0;
+        this.edges = 0;
+    }
+
+    private void expandMatrix() {
+        int newCapacity = this.capacity * 2;
+        int newStride = newCapacity >>> 6;
+        long[] tempBits = new long[newCapacity * newStride];
+
+        for (int i = 0; i < this.count; i++) {
+            System.arraycopy(this.bits, i * this.stride, tempBits, i * newStride, this.stride);
+        }
+
+        for (int i = 0; i < this.count; i++) {
+            if (this.weight[i] != null) {
+                this.weight[i] = Arrays.copyOf(this.weight[i], newCapacity);
+            }
+        }
+
+        this.bits = tempBits;
+        this.stride = newStride;
+        this.capacity = newCapacity;
+        this.weight = Arrays.copyOf(this.weight, newCapacity);
+        this.outDegrees = Arrays.copyOf(this.outDegrees, newCapacity);
+        this.inDegrees = Arrays.copyOf(this.inDegrees, newCapacity);
+    }
+
+    private boolean bit(int from, int to) {
+        return (this.bits[from * this.stride + (to >>> 6)] & (1L << to)) != 0;
+    }
+
+    @Override
+    public void addVertex() {
+        if (this.count == this.capacity) {
+            expandMatrix();
+        }
+
+        int v = this.count;
+        Arrays.fill(this.bits, v * this.stride, (v + 1) * this.stride, 0L);
+
+        //a nova coluna fica sem ligações
+        for (int i = 0; i < v; i++) {
+            this.bits[i * this.stride + (v >>> 6)] &= ~(1L << v);
+
+            if (this.weight[i] != null) {
+                this.weight[i][v] = 0;
+            }
+        }
+
+        this.weight[v] = null;
+        this.outDegrees[v] = 0;
+        this.inDegrees[v] = 0;
+        this.count++;
+    }
+
+    @Override
+    public void removeVertex(int index) {
+        for (int i = 0; i < this.count; i++) {
+            if (bit(index, i)) {
+                this.inDegrees[i]--;
+                this.edges--;
+            }
+
+            if (bit(i, index) && i != index) {
+                this.outDegrees[i]--;
+                this.edges--;
+            }
+        }
+
+        //recua as linhas seguintes e depois retira o bit da coluna em cada linha
+        System.arraycopy(this.bits, (index + 1) * this.stride, this.bits, index * this.stride, (this.count - index - 1) * this.stride);
+        Arrays.fill(this.bits, (this.count - 1) * this.stride, this.count * this.stride, 0L);
+
+        for (int i = 0; i < this.count - 1; i++) {
+            removeBit(i * this.stride, index);
+        }
+
+        System.arraycopy(this.weight, index + 1, this.weight, index, this.count - index - 1);
+        this.weight[this.count - 1] = null;
+
+        for (int i = 0; i < this.count - 1; i++) {
+            if (this.weight[i] != null) {
+                System.arraycopy(this.weight[i], index + 1, this.weight[i], index, this.count - index - 1);
+                this.weight[i][this.count - 1] = 0;
+            }
+        }
+
+        System.arraycopy(this.outDegrees, index + 1, this.outDegrees, index, this.count - index - 1);
+        System.arraycopy(this.inDegrees, index + 1, this.inDegrees, index, this.count - index - 1);
+        this.count--;
+    }
+
+    /**
+     * Removes one bit from a row, shifting the bits after it one position down
+     */
+    private void removeBit(int rowStart, int index) {
+        int w = index >>> 6;
+        long word = this.bits[rowStart + w];
+        long below = word & ((1L << index) - 1);
+        long above = (word >>> 1) & ~((1L << index) - 1);
+        this.bits[rowStart + w] = below | above;
+
+        for (w++; w < this.stride; w++) {
+            long next = this.bits[rowStart + w];
+            this.bits[rowStart + w - 1] |= next << 63;
+            this.bits[rowStart + w] = next >>> 1;
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.count;
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.edges;
+    }
+
+    @Override
+    public long memoryBytes() {
+        long bytes = 16 + 8L * this.bits.length + 16 + 8L * this.capacity + 2 * (16 + 4L * this.capacity);
+
+        for (int i = 0; i < this.count; i++) {
+            if (this.weight[i] != null) {
+                bytes += 16 + 8L * this.capacity;
+            }
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public GraphStorage kind() {
+        return GraphStorage.BITSET;
+    }
+
+    @Override
+    public boolean addEdge(int from, int to, double weight) {
+        boolean added = !bit(from, to);
+
+        if (added) {
+            this.bits[from * this.stride + (to >>> 6)] |= 1L << to;
+            this.outDegrees[from]++;
+            this.inDegrees[to]++;
+            this.edges++;
+        }
+
+        storeWeight(from, to, weight);
+        return added;
+    }
+
+    private void storeWeight(int from, int to, double weight) {
+        if (this.weight[from] == null) {
+            if (weight == 0) {
+                return;
+            }
+
+            this.weight[from] = new double[this.capacity];
+        }
+
+        this.weight[from][to] = weight;
+    }
+
+    @Override
+    public boolean removeEdge(int from, int to) {
+        if (!bit(from, to)) {
+            return false;
+        }
+
+        this.bits[from * this.stride + (to >>> 6)] &= ~(1L << to);
+        storeWeight(from, to, 0);
+        this.outDegrees[from]--;
+        this.inDegrees[to]--;
+        this.edges--;
+
+        return true;
+    }
+
+    @Override
+    public boolean hasEdge(int from, int to) {
+        return bit(from, to);
+    }
+
+    @Override
+    public boolean setWeight(int from, int to, double weight) {
+        if (!bit(from, to)) {
+            return false;
+        }
+
+        storeWeight(from, to, weight);
+        return true;
+    }
+
+    @Override
+    public double getWeight(int from, int to) {
+        return this.weight[from] == null ? 0 : this.weight[from][to];
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return this.outDegrees[vertex];
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return this.inDegrees[vertex];
+    }
+
+    @Override
+    public int firstEdge(int vertex) {
+        return nextEdge(vertex, -1);
+    }
+
+    @Override
+    public int nextEdge(int vertex, int cursor) {
+        int start = cursor + 1;
+
+        if (start >= this.count) {
+            return -1;
+        }
+
+        int rowStart = vertex * this.stride;
+        int w = start >>> 6;
+        long word = this.bits[rowStart + w] & (-1L << start);
+
+        while (word == 0) {
+            if (++w == this.stride) {
+                return -1;
+            }
+
+            word = this.bits[rowStart + w];
+        }
+
+        int target = (w << 6) + Long.numberOfTrailingZeros(word);
+        return target < this.count ? target : -1;
+    }
+
+    @Override
+    public int edgeTarget(int vertex, int cursor) {
+        return cursor;
+    }
+
+    @Override
+    public double edgeWeight(int vertex, int cursor) {
+        return getWeight(vertex, cursor);
+    }
+
+    @Override
+    public int firstInEdge(int vertex) {
+        return nextInEdge(vertex, -1);
+    }
+
+    @Override
+    public int nextInEdge(int vertex, int cursor) {
+        for (int i = cursor + 1; i < this.count; i++) {
+            if (bit(i, vertex)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int inEdgeSource(int vertex, int cursor) {
+        return cursor;
+    }
+
+    @Override
+    public double inEdgeWeight(int vertex, int cursor) {
+        return getWeight(cursor, vertex);
+    }
+
+    /**
+     * Returns the number of 64 bit words needed for a set of all the vertices
+     * @return the number of words
+     */
+    public int words() {
+        return (this.count + 63) >>> 6;
+    }
+
+    /**
+     * Adds the outgoing neighbours of a vertex to a bitset
+     * @param vertex the vertex
+     * @param set the bitset, with at least {@link #words()} words
+     */
+    public void orRow(int vertex, long[] set) {
+        int rowStart = vertex * this.stride;
+
+        for (int w = 0, words = words(); w < words; w++) {
+            set[w] |= this.bits[rowStart + w];
+        }
+    }
+
+    /**
+     * Adds the outgoing neighbours of a vertex that are not in the excluded set
+     * to a bitset, returning how many were added
+     * @param vertex the vertex
+     * @param set the bitset that receives the neighbours
+     * @param excluded the vertices to leave out, such as those already visited
+     * @return the number of vertices added to the set
+     */
+    public int orRowExcluding(int vertex, long[] set, long[] excluded) {
+        int rowStart = vertex * this.stride;
+        int added = 0;
+
+        for (int w = 0, words = words(); w < words; w++) {
+            long fresh = this.bits[rowStart + w] & ~excluded[w] & ~set[w];
+
+            if (fresh != 0) {
+                set[w] |= fresh;
+                added += Long.bitCount(fresh);
+            }
+        }
+
+        return added;
+    }
+
+    /**
+     * Returns true if any outgoing neighbour of a vertex is in the given bitset
+     * @param vertex the vertex
+     * @param set the bitset
+     * @return true if the row and the set intersect
+     */
+    public boolean rowIntersects(int vertex, long[] set) {
+        int rowStart = vertex * this.stride;
+
+        for (int w = 0, words = words(); w < words; w++) {
+            if ((this.bits[rowStart + w] & set[w]) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns a string representation of the adjacency matrix
+     * @return a string representation of the adjacency matrix
+     */
+    @Override
+    public String toString() {
+        boolean[][] matrix = new boolean[this.count][this.count];
+
+        for (int i = 0; i < this.count; i++) {
+            for (int j = 0; j < this.count; j++) {
+                matrix[i][j] = bit(i, j);
+            }
+        }
+
+        return Arrays.deepToString(matrix);
+    }
+}
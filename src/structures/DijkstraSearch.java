@@ -0,0 +1,113 @@
+package structures;
+
+import exceptions.EmptyCollectionException;
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm over an {@link AdjacencyStorage}, using an {@link IndexedHeap}
+ * with decrease-key. Runs in O((V + E) log V) and requires non negative weights.
+ */
+public class DijkstraSearch {
+    private final AdjacencyStorage graph;
+
+    /**
+     * Creates a search over the given edges
+     * @param graph the edges to search
+     */
+    public DijkstraSearch(AdjacencyStorage graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Computes the shortest paths from the source to every reachable vertex
+     * @param source the source vertex
+     * @return the shortest path tree
+     * @throws EmptyCollectionException
+     */
+    public ShortestPathTree run(int source) throws EmptyCollectionException {
+        return run(source, -1);
+    }
+
+    /**
+     * Computes shortest paths from the source, stopping as soon as the target
+     * is settled. Distances of vertices not yet settled are only upper bounds
+     * @param source the source vertex
+     * @param target the target vertex, or -1 to search the whole graph
+     * @return the shortest path tree
+     * @throws EmptyCollectionException
+     */
+    public ShortestPathTree run(int source, int target) throws EmptyCollectionException {
+        int n = this.graph.size();
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        IndexedHeap heap = new IndexedHeap(n);
+        int settled = 0;
+
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+        heap.insert(source, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.removeMin();
+            settled++;
+
+            if (u == target) {
+                break;
+            }
+
+            for (int e = this.graph.firstEdge(u); e != -1; e = this.graph.nextEdge(u, e)) {
+                int v = this.graph.edgeTarget(u, e);
+                double candidate = dist[u] + this.graph.edgeWeight(u, e);
+
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    prev[v] = u;
+                    heap.insertOrDecrease(v, candidate);
+                }
+            }
+        }
+
+        return new ShortestPathTree(source, dist, prev, settled);
+    }
+
+    /**
+     * Computes the shortest paths from every vertex to the target, searching
+     * backwards over incoming edges. In the returned tree the distance of a vertex
+     * is its distance to the target and its previous vertex is the next hop
+     * towards the target
+     * @param target the target vertex
+     * @return the reverse shortest path tree
+     * @throws EmptyCollectionException
+     */
+    public ShortestPathTree runReverse(int target) throws EmptyCollectionException {
+        int n = this.graph.size();
+        double[] dist = new double[n];
+        int[] next = new int[n];
+        IndexedHeap heap = new IndexedHeap(n);
+        int settled = 0;
+
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(next, -1);
+        dist[target] = 0;
+        heap.insert(target, 0);
+
+        while (!heap.isEmpty()) {
+            int v = heap.removeMin();
+            settled++;
+
+            for (int e = this.graph.firstInEdge(v); e != -1; e = this.graph.nextInEdge(v, e)) {
+                int u = this.graph.inEdgeSource(v, e);
+                double candidate = dist[v] + this.graph.inEdgeWeight(v, e);
+
+                if (candidate < dist[u]) {
+                    dist[u] = candidate;
+                    next[u] = v;
+                    heap.insertOrDecrease(u, candidate);
+                }
+            }
+        }
+
+        return new ShortestPathTree(target, dist, next, settled);
+    }
+}
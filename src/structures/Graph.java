@@ -4,43 +4,69 @@ import exceptions.ElementDoesntExistException;
 import exceptions.EmptyCollectionException;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class Graph<T> implements GraphADT<T> {
     protected final int DEFAULT_CAPACITY = 50;
     protected int numVertices;
-    protected boolean[][] adjMatrix;
+    protected AdjacencyStorage adjacency;
     protected T[] vertices;
+    protected VertexIndex<T> index;
     protected Class<T> clazz;
+    protected int modCount;
+    private final AtomicReference<long[]> visitedPool = new AtomicReference<>();
     
     /**
-     * Creates an empty graph
+     * Creates an empty graph backed by an adjacency matrix
      */
     public Graph(Class<T> clazz){
+        this(clazz, GraphStorage.MATRIX);
+    }
+
+    /**
+     * Creates an empty graph using the given edge storage
+     * @param clazz the class of the vertices
+     * @param storage the edge storage backend
+     */
+    public Graph(Class<T> clazz, GraphStorage storage){
         this.numVertices = 0;
-        this.adjMatrix = new boolean[DEFAULT_CAPACITY][DEFAULT_CAPACITY];
+        this.adjacency = storage.create(DEFAULT_CAPACITY);
         this.vertices = (T[])(new Object[DEFAULT_CAPACITY]);
+        this.index = new VertexIndex<>(DEFAULT_CAPACITY);
         this.clazz = clazz;
     }
 
     /**
-     * Método para aumentar a capacidade do grafo em 3 vértices
+     * Creates a graph over the given vertices and an already filled edge storage
+     * @param clazz the class of the vertices
+     * @param vertices the vertices, in index order
+     * @param adjacency the edges between them
      */
-    public void expandCapacity() {
-        Arrays.copyOf(this.vertices, this.numVertices + 3);
-    }
-    
-    private void expandMatrix() {
-        boolean[][] tempMatrix = new boolean[this.numVertices * 2][this.numVertices * 2];
+    protected Graph(Class<T> clazz, T[] vertices, AdjacencyStorage adjacency){
+        if (vertices.length != adjacency.size()) {
+            throw new IllegalArgumentException("The storage must have one row per vertex.");
+        }
 
-        for(int i = 0; i < this.numVertices; ++i) {
-            for(int j = 0; j < this.numVertices; ++j) {
-                tempMatrix[i][j] = this.adjMatrix[i][j];
-            }
+        this.numVertices = vertices.length;
+        this.adjacency = adjacency;
+        this.vertices = (T[])(new Object[Math.max(DEFAULT_CAPACITY, vertices.length)]);
+        this.index = new VertexIndex<>(Math.max(DEFAULT_CAPACITY, vertices.length));
+        this.clazz = clazz;
+
+        for (int i = 0; i < vertices.length; i++) {
+            this.vertices[i] = vertices[i];
+            this.index.put(vertices[i], i);
         }
+    }
 
-        this.adjMatrix = tempMatrix;
+    /**
+     * Método para duplicar a capacidade do array de vértices
+     */
+    public void expandCapacity() {
+        this.vertices = Arrays.copyOf(this.vertices, this.vertices.length * 2);
     }
     
     /**
@@ -54,17 +80,14 @@ public class Graph<T> implements GraphADT<T> {
             expandCapacity();
         }
         
-        //atribui o vértice ao array de vertices na posição atual
+        //atribui o vértice ao array de vertices na posição atual, sem ligações a nenhum outro
         this.vertices[this.numVertices] = vertex;
-        
-        //percorre i, e não o associa a nenhum outro
-        for (int i = 0; i <= this.numVertices; i++) {
-            this.adjMatrix[this.numVertices][i] = false;
-            this.adjMatrix[i][this.numVertices] = false;
-        }
+        this.index.put(vertex, this.numVertices);
+        this.adjacency.addVertex();
         
         //número de vértices incrementado
         this.numVertices++;
+        this.modCount++;
     }
 
     /**
@@ -72,39 +95,32 @@ public class Graph<T> implements GraphADT<T> {
      * @param vertex the vertex to be removed from this graph
      */
     @Override
-    public void removeVertex(T vertex) {
-        int i = 0;
-        
-        //enquanto o vértice for diferente do vértice na posição i, incrementa i
-        while (!vertex.equals(this.vertices[i])) {
-            i++;
-        }
+    public void removeVertex(T vertex) throws EmptyCollectionException, ElementDoesntExistException {
+        int i = getIndex(vertex);
 
-        //se i for menor que o tamanho do array de vértices, o vértice na posição i fica null
-        if (i < this.vertices.length) {
-            this.vertices[i] = null;
-            
-            //percorre array a partir da posição i, e recua uma posição a todos os vértices seguintes
-            for (int j = i; j < this.vertices.length; j++) {
-                this.vertices[j] = this.vertices[j + 1];
-            }
-            
-            //decrementa o número de vértices
-            this.numVertices--;
-        }
+        //recua uma posição a todos os vértices seguintes, juntamente com as suas ligações
+        System.arraycopy(this.vertices, i + 1, this.vertices, i, this.numVertices - i - 1);
+        this.index.remove(vertex);
+        this.index.shiftAfter(i);
+        this.adjacency.removeVertex(i);
+
+        //decrementa o número de vértices
+        this.numVertices--;
+        this.vertices[this.numVertices] = null;
+        this.modCount++;
     }
 
     /**
-     * Método que verifica se o número de vértices é válido
+     * Método que verifica se o índice corresponde a um vértice do grafo
      * @param index
      * @return 
      */
     public boolean indexIsValid(int index) {
-        return index < this.vertices.length;
+        return index >= 0 && index < this.numVertices;
     }
     
     /**
-     * Método que obtem o índice de um dado vértice
+     * Método que obtem o índice de um dado vértice, em tempo constante
      * @param vertex
      * @return 
      * @throws exceptions.EmptyCollectionException 
@@ -116,17 +132,9 @@ public class Graph<T> implements GraphADT<T> {
         } 
         
         else {
-            boolean found = false;
-            int indexOfRemoval = 0;
-
-            for(int i = 0; i < this.numVertices; ++i) {
-                if (this.vertices[i].equals(vertex)) {
-                    indexOfRemoval = i;
-                    found = true;
-                }
-            }
+            int indexOfRemoval = this.index.get(vertex);
 
-            if (!found) {
+            if (indexOfRemoval == -1) {
                 throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
             } 
             
@@ -136,6 +144,29 @@ public class Graph<T> implements GraphADT<T> {
         }
     }
     
+    /**
+     * Returns the index of a vertex, without throwing if it is missing
+     * @param vertex the vertex
+     * @return the index of the vertex, or -1 if it is not in this graph
+     */
+    public int indexOf(T vertex) {
+        return this.index.get(vertex);
+    }
+
+    /**
+     * Returns the vertex stored at the given index
+     * @param index the index of the vertex
+     * @return the vertex
+     * @throws ElementDoesntExistException if the index is not valid
+     */
+    public T getVertex(int index) throws ElementDoesntExistException {
+        if (!indexIsValid(index)) {
+            throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
+        }
+
+        return this.vertices[index];
+    }
+
     /**
      * Inserts an edge between two vertices of the graph
      * @param vertex1 the first vertex
@@ -155,8 +186,8 @@ public class Graph<T> implements GraphADT<T> {
     public void addEdge(int index1, int index2){
         //se o índice 1 e 2 forem válidos, associa os vértices pois estão ligados por uma aresta
         if (indexIsValid(index1) && indexIsValid(index2)) {
-            this.adjMatrix[index1][index2] = true;
-           // this.adjMatrix[index2][index1] = true;
+            this.adjacency.addEdge(index1, index2, 0);
+            this.modCount++;
         }
     }
 
@@ -168,51 +199,25 @@ public class Graph<T> implements GraphADT<T> {
     @Override
     public void removeEdge(T vertex1, T vertex2) throws EmptyCollectionException, ElementDoesntExistException {
         //verifica a validade dos índices, e não associa os vértices
-        if (indexIsValid(getIndex(vertex1)) && indexIsValid(getIndex(vertex2))) {
-            this.adjMatrix[getIndex(vertex1)][getIndex(vertex2)] = false;
-          //  this.adjMatrix[getIndex(vertex2)][getIndex(vertex1)] = false;
+        int index1 = getIndex(vertex1);
+        int index2 = getIndex(vertex2);
+
+        if (indexIsValid(index1) && indexIsValid(index2)) {
+            this.adjacency.removeEdge(index1, index2);
+            this.modCount++;
         }
     }
     
     /**
      * Returns an iterator that performs a breadth first search traversal starting
-     * at the given index
+     * at the given index. The traversal is lazy: each call to next only expands
+     * the vertex returned by the previous call
      * @param startIndex the index to begin the search from
      * @return an iterator that performs a breadth first traversal
      * @throws EmptyCollectionException 
      */
     public Iterator<T> iteratorBFS(int startIndex) throws EmptyCollectionException{
-        Integer x;
-        LinkedQueue<Integer> traversalQueue = new LinkedQueue<Integer>();
-        ArrayUnorderedList<T> resultList = new ArrayUnorderedList<T>();
-        
-        if (!indexIsValid(startIndex)) {
-            return resultList.iterator();
-        }
-        
-        boolean[] visited = new boolean[this.numVertices];
-        
-        for (int i = 0; i < this.numVertices; i++) {
-            visited[i] = false;
-        }
-        
-        traversalQueue.enqueue(new Integer(startIndex));
-        visited[startIndex] = true;
-        
-        while(!traversalQueue.isEmpty()){
-            x = traversalQueue.dequeue();
-            resultList.addToRear(this.vertices[x.intValue()]);
-            
-            //Find all vertices adjacent to x that have not been visited and queue them up
-            for (int i = 0; i < this.numVertices; i++) {
-                if (this.adjMatrix[x.intValue()][i] && !visited[i]) {
-                    traversalQueue.enqueue(new Integer(i));
-                    visited[i] = true;
-                } 
-            }
-        }
-        
-        return resultList.iterator();
+        return new BreadthFirstIterator(startIndex);
     }
     
     /**
@@ -233,45 +238,15 @@ public class Graph<T> implements GraphADT<T> {
         return null;
     }
 
+    /**
+     * Returns an iterator that performs a depth first search traversal starting
+     * at the given index. The traversal is lazy: each call to next only advances
+     * the search until the next vertex is discovered
+     * @param startIndex the index to begin the search from
+     * @return an iterator that performs a depth first traversal
+     */
     public Iterator<T> iteratorDFS(int startIndex){
-        Integer x;
-        boolean found;
-        LinkedStack<Integer> traversalStack = new LinkedStack<Integer>();
-        ArrayUnorderedList<T> resultList = new ArrayUnorderedList<T>();
-        boolean[] visited = new boolean[this.numVertices];
-        
-        if (!indexIsValid(startIndex)) {
-            return resultList.iterator();
-        }
-        
-        for (int i = 0; i < this.numVertices; i++) {
-            visited[i] = false;
-        }
-        
-        traversalStack.push(new Integer(startIndex));
-        resultList.addToRear(this.vertices[startIndex]);
-        visited[startIndex] = true;
-        
-        while(!traversalStack.isEmpty()){
-            x = traversalStack.peek();
-            found = false;
-            
-            //Find a vertex adjacent to x that has not been visited and push it on the stack
-            for (int i = 0; (i < this.numVertices) && !found; i++) {
-                if (this.adjMatrix[x.intValue()][i] && !visited[i]) {
-                    traversalStack.push(new Integer(i));
-                    resultList.addToRear(this.vertices[i]);
-                    visited[i] = true;
-                    found = true;
-                }
-            }
-            
-            if (!found && !traversalStack.isEmpty()) {
-                traversalStack.pop();
-            }
-        }
-        
-        return resultList.iterator();
+        return new DepthFirstIterator(startIndex);
     }
     
     /**
@@ -323,17 +298,34 @@ public class Graph<T> implements GraphADT<T> {
         } 
         
         else {
-            Iterator<T> iterator = this.iteratorBFS(this.vertices[0]);
-            int counter;
-            
-            for(counter = 0; iterator.hasNext(); ++counter) {
-                iterator.next();
-            }
-
-            return counter == this.numVertices;
+            return new ParallelBreadthFirstSearch(this.adjacency).reachableFrom(0).isComplete();
         }
     }
 
+    /**
+     * Returns the vertices that can be reached from the given vertex, found with
+     * a parallel breadth first search
+     * @param vertex the starting vertex
+     * @return the set of reachable vertex indices
+     * @throws EmptyCollectionException
+     * @throws ElementDoesntExistException
+     */
+    public Reachability reachableFrom(T vertex) throws EmptyCollectionException, ElementDoesntExistException {
+        return new ParallelBreadthFirstSearch(this.adjacency).reachableFrom(getIndex(vertex));
+    }
+
+    /**
+     * Returns the vertices from which the given vertex can be reached, found with
+     * a parallel breadth first search over the incoming edges
+     * @param vertex the target vertex
+     * @return the set of vertex indices that reach the target
+     * @throws EmptyCollectionException
+     * @throws ElementDoesntExistException
+     */
+    public Reachability reachingTo(T vertex) throws EmptyCollectionException, ElementDoesntExistException {
+        return new ParallelBreadthFirstSearch(this.adjacency).reachingTo(getIndex(vertex));
+    }
+
     /**
      * Return the number of vertices in this graph
      * @return the integer number of vertices in this graph
@@ -351,16 +343,16 @@ public class Graph<T> implements GraphADT<T> {
         else {
             int index = this.getIndex((T) vertex);
             ArrayOrderedList<T> list = new ArrayOrderedList();
-            int j;
             
-            for(j = 0; j < this.numVertices; ++j) {
-                if (this.adjMatrix[j][index] == true) {
-                    list.add((T)(Comparable)this.vertices[j]);
-                }
+            for (int e = this.adjacency.firstInEdge(index); e != -1; e = this.adjacency.nextInEdge(index, e)) {
+                list.add((T)(Comparable)this.vertices[this.adjacency.inEdgeSource(index, e)]);
             }
 
-            for(j = 0; j < this.numVertices; ++j) {
-                if (this.adjMatrix[index][j] == true && !list.contains(this.vertices[j])) {
+            //os vértices que também têm ligação para este já foram adicionados
+            for (int e = this.adjacency.firstEdge(index); e != -1; e = this.adjacency.nextEdge(index, e)) {
+                int j = this.adjacency.edgeTarget(index, e);
+
+                if (!this.adjacency.hasEdge(j, index)) {
                     list.add((T)(Comparable)this.vertices[j]);
                 }
             }
@@ -369,11 +361,257 @@ public class Graph<T> implements GraphADT<T> {
         }
     }
     
+    /**
+     * Returns an estimate of the heap memory held by this graph, not counting
+     * the vertex objects themselves
+     * @return the estimated size in bytes
+     */
+    public long memoryBytes() {
+        return 16 + 8L * this.vertices.length + this.index.memoryBytes() + this.adjacency.memoryBytes();
+    }
+
+    /**
+     * Returns the kind of edge storage behind this graph
+     * @return the storage kind
+     */
+    public GraphStorage getStorage() {
+        return this.adjacency.kind();
+    }
+
+    /**
+     * Returns the indices of the neighbours of a vertex, in the same order and with
+     * the same rule as {@link #getNeighbours(Comparable)} before sorting: first the
+     * vertices with an edge to it, then the vertices it has an edge to without an edge back.
+     * Costs O(degree * log degree) on {@link GraphStorage#SPARSE} storage, where the edge
+     * back is a binary search, and O(V) on the matrix storages, which scan a whole row and column
+     * @param index the index of the vertex
+     * @return the indices of the neighbours
+     * @throws ElementDoesntExistException if the index is not valid
+     */
+    public int[] getNeighbourIndices(int index) throws ElementDoesntExistException {
+        if (!indexIsValid(index)) {
+            throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
+        }
+
+        int[] neighbours = new int[this.adjacency.inDegree(index) + this.adjacency.outDegree(index)];
+        int count = 0;
+
+        for (int e = this.adjacency.firstInEdge(index); e != -1; e = this.adjacency.nextInEdge(index, e)) {
+            neighbours[count++] = this.adjacency.inEdgeSource(index, e);
+        }
+
+        for (int e = this.adjacency.firstEdge(index); e != -1; e = this.adjacency.nextEdge(index, e)) {
+            int j = this.adjacency.edgeTarget(index, e);
+
+            if (!this.adjacency.hasEdge(j, index)) {
+                neighbours[count++] = j;
+            }
+        }
+
+        return Arrays.copyOf(neighbours, count);
+    }
+
+    /**
+     * Returns a counter that changes whenever a vertex, an edge or a weight of
+     * this graph changes, so results computed from it can be invalidated
+     * @return the modification counter
+     */
+    public int getModCount() {
+        return this.modCount;
+    }
+
     public void printArray() {
         System.out.println(Arrays.toString(this.vertices));
     }
 
     public void printMatrix() {
-        System.out.println(Arrays.deepToString(this.adjMatrix));
+        System.out.println(this.adjacency);
+    }
+
+    /**
+     * Borrows a cleared visited bitset with room for every vertex
+     * @return the bitset
+     */
+    private long[] borrowVisited() {
+        long[] visited = this.visitedPool.getAndSet(null);
+        int words = (this.numVertices + 63) >>> 6;
+
+        if (visited == null || visited.length < words) {
+            visited = new long[words];
+        }
+
+        return visited;
+    }
+
+    /**
+     * Clears a visited bitset and gives it back for the next traversal
+     * @param visited the bitset
+     */
+    private void releaseVisited(long[] visited) {
+        Arrays.fill(visited, 0L);
+        this.visitedPool.set(visited);
+    }
+
+    /**
+     * Iterator that performs a breadth first traversal on demand, using a
+     * primitive queue of vertex indices
+     */
+    private class BreadthFirstIterator implements Iterator<T> {
+        private int[] queue;
+        private int head;
+        private int tail;
+        private int pending;
+        private long[] visited;
+
+        BreadthFirstIterator(int startIndex) {
+            this.queue = new int[4];
+            this.head = 0;
+            this.tail = 0;
+            this.pending = -1;
+
+            if (indexIsValid(startIndex)) {
+                this.queue[this.tail++] = startIndex;
+            }
+        }
+
+        /**
+         * Queues the unvisited neighbours of the vertex returned last
+         */
+        private void expand() {
+            if (this.pending == -1) {
+                return;
+            }
+
+            int x = this.pending;
+            this.pending = -1;
+
+            if (this.visited == null) {
+                this.visited = borrowVisited();
+                this.visited[this.queue[0] >>> 6] |= 1L << this.queue[0];
+            }
+
+            //Find all vertices adjacent to x that have not been visited and queue them up
+            for (int e = adjacency.firstEdge(x); e != -1; e = adjacency.nextEdge(x, e)) {
+                int i = adjacency.edgeTarget(x, e);
+
+                if ((this.visited[i >>> 6] & (1L << i)) == 0) {
+                    this.visited[i >>> 6] |= 1L << i;
+
+                    if (this.tail == this.queue.length) {
+                        this.queue = Arrays.copyOf(this.queue, this.queue.length * 2);
+                    }
+
+                    this.queue[this.tail++] = i;
+                }
+            }
+
+            if (this.head == this.tail) {
+                releaseVisited(this.visited);
+                this.visited = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            expand();
+            return this.head < this.tail;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            this.pending = this.queue[this.head++];
+            return vertices[this.pending];
+        }
+    }
+
+    /**
+     * Iterator that performs a depth first traversal on demand, using a
+     * primitive stack of vertex indices and edge cursors
+     */
+    private class DepthFirstIterator implements Iterator<T> {
+        private static final int NOT_STARTED = Integer.MIN_VALUE;
+        private static final int FINISHED = -2;
+
+        private int[] stack;
+        private int[] cursors;
+        private int top;
+        private int upcoming;
+        private long[] visited;
+
+        DepthFirstIterator(int startIndex) {
+            this.stack = new int[4];
+            this.cursors = new int[4];
+            this.top = 0;
+            this.upcoming = indexIsValid(startIndex) ? startIndex : FINISHED;
+        }
+
+        /**
+         * Advances the search until an unvisited vertex is found
+         * @return the vertex found, or FINISHED
+         */
+        private int advance() {
+            while (this.top > 0) {
+                int x = this.stack[this.top - 1];
+                int c = this.cursors[this.top - 1];
+                int e = (c == NOT_STARTED) ? adjacency.firstEdge(x) : adjacency.nextEdge(x, c);
+
+                //Find a vertex adjacent to x that has not been visited
+                while (e != -1 && (this.visited[adjacency.edgeTarget(x, e) >>> 6] & (1L << adjacency.edgeTarget(x, e))) != 0) {
+                    e = adjacency.nextEdge(x, e);
+                }
+
+                if (e == -1) {
+                    this.top--;
+                } else {
+                    this.cursors[this.top - 1] = e;
+                    return adjacency.edgeTarget(x, e);
+                }
+            }
+
+            releaseVisited(this.visited);
+            this.visited = null;
+
+            return FINISHED;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.upcoming == -1) {
+                this.upcoming = advance();
+            }
+
+            return this.upcoming != FINISHED;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int i = this.upcoming;
+
+            if (this.visited == null) {
+                this.visited = borrowVisited();
+            }
+
+            this.visited[i >>> 6] |= 1L << i;
+
+            if (this.top == this.stack.length) {
+                this.stack = Arrays.copyOf(this.stack, this.top * 2);
+                this.cursors = Arrays.copyOf(this.cursors, this.top * 2);
+            }
+
+            this.stack[this.top] = i;
+            this.cursors[this.top] = NOT_STARTED;
+            this.top++;
+            this.upcoming = -1;
+
+            return vertices[i];
+        }
     }
 }
@@ -0,0 +1,37 @@
+package structures;
+
+/**
+ * Edge storage backends that can be chosen when creating a {@link Graph} or a {@link Network}
+ */
+public enum GraphStorage {
+    /**
+     * Dense adjacency matrix: O(V^2) memory and O(V) neighbour scans
+     */
+    MATRIX,
+
+    /**
+     * Compressed sparse rows: O(V + E) memory and O(degree) neighbour scans
+     */
+    SPARSE,
+
+    /**
+     * Adjacency matrix packed one bit per cell: O(V^2 / 8) bytes and word at a time neighbour scans
+     */
+    BITSET;
+
+    /**
+     * Creates an empty storage of this kind
+     * @param capacity the initial vertex capacity
+     * @return the new storage
+     */
+    AdjacencyStorage create(int capacity) {
+        switch (this) {
+            case SPARSE:
+                return new SparseAdjacency(capacity);
+            case BITSET:
+                return new BitsetAdjacency(capacity);
+            default:
+                return new MatrixAdjacency(capacity);
+        }
+    }
+}
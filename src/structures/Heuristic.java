@@ -0,0 +1,14 @@
+package structures;
+
+/**
+ * Estimate of the remaining distance from a vertex to the target of an A* search.
+ * The search only returns optimal paths if the estimate never exceeds the real distance.
+ */
+public interface Heuristic {
+    /**
+     * Returns a lower bound of the weight of the path from the vertex to the target
+     * @param vertex the index of the vertex
+     * @return the estimated remaining distance
+     */
+    public double estimate(int vertex);
+}
@@ -0,0 +1,88 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Common {@link Heuristic} implementations
+ */
+public final class Heuristics {
+
+    private Heuristics() {
+    }
+
+    /**
+     * Returns the heuristic that always estimates 0, turning A* into Dijkstra
+     * @return the zero heuristic
+     */
+    public static Heuristic zero() {
+        return vertex -> 0;
+    }
+
+    /**
+     * Returns a heuristic backed by a table of lower bounds, such as exact
+     * distances computed beforehand
+     * @param lowerBounds the lower bound for each vertex index
+     * @return the table heuristic
+     */
+    public static Heuristic table(double[] lowerBounds) {
+        return vertex -> lowerBounds[vertex];
+    }
+
+    /**
+     * Returns the straight line distance between each vertex and the target,
+     * for graphs whose vertices have coordinates
+     * @param x the x coordinate of each vertex
+     * @param y the y coordinate of each vertex
+     * @param target the index of the target vertex
+     * @param costPerUnit the smallest weight an edge can have per unit of length
+     * @return the euclidean heuristic
+     */
+    public static Heuristic euclidean(double[] x, double[] y, int target, double costPerUnit) {
+        return vertex -> Math.hypot(x[vertex] - x[target], y[vertex] - y[target]) * costPerUnit;
+    }
+
+    /**
+     * Returns the number of edges on the shortest path from each vertex to the
+     * target, multiplied by the smallest edge weight. The hop counts are computed
+     * once with a breadth first search over the incoming edges of the target.
+     * If any edge weighs 0 every estimate is 0 and A* expands the same vertices
+     * as Dijkstra, so graphs with free edges should use {@link Landmarks} instead
+     * @param graph the edges of the graph
+     * @param target the index of the target vertex
+     * @return the hop distance heuristic
+     */
+    public static Heuristic hopDistance(AdjacencyStorage graph, int target) {
+        int n = graph.size();
+        int[] hops = new int[n];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        double minWeight = Double.POSITIVE_INFINITY;
+
+        for (int v = 0; v < n; v++) {
+            for (int e = graph.firstEdge(v); e != -1; e = graph.nextEdge(v, e)) {
+                minWeight = Math.min(minWeight, graph.edgeWeight(v, e));
+            }
+        }
+
+        //os vértices que não chegam ao alvo ficam com a estimativa máxima
+        Arrays.fill(hops, -1);
+        hops[target] = 0;
+        queue[tail++] = target;
+
+        while (head < tail) {
+            int v = queue[head++];
+
+            for (int e = graph.firstInEdge(v); e != -1; e = graph.nextInEdge(v, e)) {
+                int u = graph.inEdgeSource(v, e);
+
+                if (hops[u] == -1) {
+                    hops[u] = hops[v] + 1;
+                    queue[tail++] = u;
+                }
+            }
+        }
+
+        double scale = minWeight == Double.POSITIVE_INFINITY ? 0 : minWeight;
+        return vertex -> hops[vertex] == -1 ? Double.POSITIVE_INFINITY : hops[vertex] * scale;
+    }
+}
@@ -0,0 +1,237 @@
+package structures;
+
+import exceptions.EmptyCollectionException;
+import java.util.Arrays;
+
+/**
+ * Min d-ary heap of vertex indices ordered by a {@code double} key. Each vertex
+ * appears at most once, and its position is tracked so its key can be lowered
+ * in O(log n) with {@link #decreaseKey(int, double)}.
+ */
+public class IndexedHeap {
+    private static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private int[] heap;
+    private int[] position;
+    private double[] keys;
+    private int count;
+
+    /**
+     * Creates an empty 4-ary heap for vertices in [0, capacity)
+     * @param capacity the number of vertices
+     */
+    public IndexedHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Creates an empty heap for vertices in [0, capacity)
+     * @param capacity the number of vertices
+     * @param arity the number of children of each node, at least 2
+     */
+    public IndexedHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("The arity must be at least 2.");
+        }
+
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        this.count = 0;
+        Arrays.fill(this.position, -1);
+    }
+
+    /**
+     * Returns true if this heap is empty
+     * @return true if this heap is empty
+     */
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    /**
+     * Returns the number of vertices in this heap
+     * @return the number of vertices in this heap
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Returns true if the vertex is currently in this heap
+     * @param vertex the vertex
+     * @return true if the vertex is in this heap
+     */
+    public boolean contains(int vertex) {
+        return this.position[vertex] != -1;
+    }
+
+    /**
+     * Returns the key of a vertex in this heap
+     * @param vertex the vertex
+     * @return the key of the vertex
+     */
+    public double getKey(int vertex) {
+        return this.keys[vertex];
+    }
+
+    /**
+     * Adds a vertex that is not in this heap
+     * @param vertex the vertex
+     * @param key the key of the vertex
+     */
+    public void insert(int vertex, double key) {
+        if (contains(vertex)) {
+            throw new IllegalArgumentException("The vertex is already in the heap.");
+        }
+
+        this.keys[vertex] = key;
+        this.heap[this.count] = vertex;
+        this.position[vertex] = this.count;
+        this.count++;
+        siftUp(this.count - 1);
+    }
+
+    /**
+     * Lowers the key of a vertex already in this heap
+     * @param vertex the vertex
+     * @param key the new key, not greater than the current one
+     */
+    public void decreaseKey(int vertex, double key) {
+        if (!contains(vertex) || key > this.keys[vertex]) {
+            throw new IllegalArgumentException("The key can only be decreased for vertices in the heap.");
+        }
+
+        this.keys[vertex] = key;
+        siftUp(this.position[vertex]);
+    }
+
+    /**
+     * Inserts the vertex, or lowers its key if it is already in this heap with a larger key
+     * @param vertex the vertex
+     * @param key the key of the vertex
+     * @return true if the heap changed
+     */
+    public boolean insertOrDecrease(int vertex, double key) {
+        if (!contains(vertex)) {
+            insert(vertex, key);
+            return true;
+        }
+
+        if (key < this.keys[vertex]) {
+            decreaseKey(vertex, key);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the vertex with the smallest key without removing it
+     * @return the vertex with the smallest key
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public int peek() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException("Empty Heap");
+        }
+
+        return this.heap[0];
+    }
+
+    /**
+     * Returns the smallest key in this heap
+     * @return the smallest key
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public double minKey() throws EmptyCollectionException {
+        return this.keys[peek()];
+    }
+
+    /**
+     * Removes the vertex with the smallest key and returns it
+     * @return the vertex with the smallest key
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public int removeMin() throws EmptyCollectionException {
+        int min = peek();
+
+        this.count--;
+        this.position[min] = -1;
+
+        if (this.count > 0) {
+            int last = this.heap[this.count];
+            this.heap[0] = last;
+            this.position[last] = 0;
+            siftDown(0);
+        }
+
+        return min;
+    }
+
+    /**
+     * Removes every vertex from this heap, in O(size)
+     */
+    public void clear() {
+        for (int i = 0; i < this.count; i++) {
+            this.position[this.heap[i]] = -1;
+        }
+
+        this.count = 0;
+    }
+
+    private void siftUp(int node) {
+        int vertex = this.heap[node];
+        double key = this.keys[vertex];
+
+        while (node > 0) {
+            int parent = (node - 1) / this.arity;
+
+            if (this.keys[this.heap[parent]] <= key) {
+                break;
+            }
+
+            this.heap[node] = this.heap[parent];
+            this.position[this.heap[node]] = node;
+            node = parent;
+        }
+
+        this.heap[node] = vertex;
+        this.position[vertex] = node;
+    }
+
+    private void siftDown(int node) {
+        int vertex = this.heap[node];
+        double key = this.keys[vertex];
+
+        while (true) {
+            int first = node * this.arity + 1;
+
+            if (first >= this.count) {
+                break;
+            }
+
+            int last = Math.min(first + this.arity, this.count);
+            int smallest = first;
+
+            for (int child = first + 1; child < last; child++) {
+                if (this.keys[this.heap[child]] < this.keys[this.heap[smallest]]) {
+                    smallest = child;
+                }
+            }
+
+            if (this.keys[this.heap[smallest]] >= key) {
+                break;
+            }
+
+            this.heap[node] = this.heap[smallest];
+            this.position[this.heap[node]] = node;
+            node = smallest;
+        }
+
+        this.heap[node] = vertex;
+        this.position[vertex] = node;
+    }
+}
@@ -0,0 +1,151 @@
+package structures;
+
+import exceptions.EmptyCollectionException;
+import java.util.Arrays;
+
+/**
+ * Landmark lower bounds for A* (ALT). The exact distances from and to a few
+ * landmark vertices are computed once; by the triangle inequality they bound
+ * the distance between any two vertices from below, so the same landmarks
+ * guide searches towards every target. The bounds are admissible and
+ * consistent.
+ *
+ * Building the landmarks runs two Dijkstra searches per landmark and keeps
+ * 2·k·V distances. Each estimate then costs O(k). Landmarks are picked by
+ * farthest selection: the first is the vertex farthest from vertex 0, and each
+ * new landmark is the vertex whose round trip to the nearest landmark chosen so
+ * far is the longest.
+ */
+public class Landmarks {
+    private final int[] landmarks;
+    private final double[][] from;
+    private final double[][] to;
+
+    /**
+     * Picks the landmarks and computes their distances
+     * @param graph the edges of the graph
+     * @param count the number of landmarks, capped at the number of vertices
+     * @throws EmptyCollectionException
+     */
+    public Landmarks(AdjacencyStorage graph, int count) throws EmptyCollectionException {
+        int n = graph.size();
+        int k = Math.min(count, n);
+        DijkstraSearch search = new DijkstraSearch(graph);
+        double[] nearest = new double[n];
+
+        this.landmarks = new int[k];
+        this.from = new double[k][];
+        this.to = new double[k][];
+
+        if (k == 0) {
+            return;
+        }
+
+        //o primeiro marco e o vértice mais longe do vértice 0, que só serve de ponto de partida
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        int next = farthest(nearest, distances(search.run(0), n), distances(search.runReverse(0), n));
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+
+        for (int i = 0; i < k; i++) {
+            this.landmarks[i] = next;
+            this.from[i] = distances(search.run(next), n);
+            this.to[i] = distances(search.runReverse(next), n);
+            nearest[next] = -1;
+            next = farthest(nearest, this.from[i], this.to[i]);
+        }
+    }
+
+    /**
+     * Updates the round trip of each vertex to its nearest landmark and returns the
+     * vertex with the longest one, skipping the landmarks, which are marked with -1
+     */
+    private static int farthest(double[] nearest, double[] from, double[] to) {
+        int best = -1;
+
+        for (int v = 0; v < nearest.length; v++) {
+            if (nearest[v] >= 0) {
+                //num sentido sem caminho conta só o outro; sem nenhum, a volta fica infinita
+                double trip = from[v] == Double.POSITIVE_INFINITY ? to[v]
+                        : to[v] == Double.POSITIVE_INFINITY ? from[v] : from[v] + to[v];
+
+                nearest[v] = Math.min(nearest[v], trip);
+
+                if (best == -1 || nearest[v] > nearest[best]) {
+                    best = v;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private static double[] distances(ShortestPathTree tree, int n) {
+        double[] dist = new double[n];
+
+        for (int v = 0; v < n; v++) {
+            dist[v] = tree.getDistance(v);
+        }
+
+        return dist;
+    }
+
+    /**
+     * Returns the landmark vertices
+     * @return a copy of the landmark indices
+     */
+    public int[] getLandmarks() {
+        return this.landmarks.clone();
+    }
+
+    /**
+     * Returns a lower bound of the distance from a vertex to the target
+     * @param vertex the vertex
+     * @param target the target vertex
+     * @return the lower bound, or infinity if the target is provably unreachable
+     */
+    public double lowerBound(int vertex, int target) {
+        double bound = 0;
+
+        for (int i = 0; i < this.landmarks.length; i++) {
+            bound = Math.max(bound, difference(this.from[i][target], this.from[i][vertex]));
+            bound = Math.max(bound, difference(this.to[i][vertex], this.to[i][target]));
+        }
+
+        return bound;
+    }
+
+    /**
+     * Computes a - b, where a - infinity tells nothing and infinity - b proves that
+     * the target can't be reached
+     */
+    private static double difference(double a, double b) {
+        if (b == Double.POSITIVE_INFINITY) {
+            return 0;
+        }
+
+        return a - b;
+    }
+
+    /**
+     * Returns the heuristic towards a target
+     * @param target the target vertex
+     * @return the landmark heuristic
+     */
+    public Heuristic towards(int target) {
+        return vertex -> lowerBound(vertex, target);
+    }
+
+    /**
+     * Estimates the memory used by the landmark distances
+     * @return the estimated size in bytes
+     */
+    public long memoryBytes() {
+        long bytes = 16 + 4L * this.landmarks.length + 2 * (16 + 8L * this.landmarks.length);
+
+        for (int i = 0; i < this.landmarks.length; i++) {
+            bytes += 2 * (16 + 8L * this.from[i].length);
+        }
+
+        return bytes;
+    }
+}
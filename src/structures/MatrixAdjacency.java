@@ -0,0 +1,292 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Dense adjacency matrix storage. Uses O(V^2) memory and O(V) neighbour scans,
+ * which is the best choice only for small or dense graphs.
+ * The weight matrix is only allocated once a non zero weight is stored.
+ */
+public class MatrixAdjacency implements AdjacencyStorage {
+    private boolean[][] adjMatrix;
+    private double[][] weight;
+    private int[] outDegrees;
+    private int[] inDegrees;
+    private int count;
+    private int edges;
+
+    /**
+     * Creates an empty matrix with room for the given number of vertices
+     * @param capacity the initial capacity
+     */
+    public MatrixAdjacency(int capacity) {
+        this.adjMatrix = new boolean[capacity][capacity];
+        this.weight = null;
+        this.outDegrees = new int[capacity];
+        this.inDegrees = new int[capacity];
+        this.count = 0;
+        this.edges = 0;
+    }
+
+    private void expandMatrix() {
+        int capacity = Math.max(1, this.adjMatrix.length * 2);
+        boolean[][] tempMatrix = new boolean[capacity][capacity];
+
+        for (int i = 0; i < this.count; i++) {
+            System.arraycopy(this.adjMatrix[i], 0, tempMatrix[i], 0, this.count);
+        }
+
+        this.adjMatrix = tempMatrix;
+
+        if (this.weight != null) {
+            double[][] tempWeight = new double[capacity][capacity];
+
+            for (int i = 0; i < this.count; i++) {
+                System.arraycopy(this.weight[i], 0, tempWeight[i], 0, this.count);
+            }
+
+            this.weight = tempWeight;
+        }
+
+        this.outDegrees = Arrays.copyOf(this.outDegrees, capacity);
+        this.inDegrees = Arrays.copyOf(this.inDegrees, capacity);
+    }
+
+    @Override
+    public void addVertex() {
+        if (this.count == this.adjMatrix.length) {
+            expandMatrix();
+        }
+
+        //a nova linha e coluna ficam sem ligações
+        for (int i = 0; i <= this.count; i++) {
+            this.adjMatrix[this.count][i] = false;
+            this.adjMatrix[i][this.count] = false;
+
+            if (this.weight != null) {
+                this.weight[this.count][i] = 0;
+                this.weight[i][this.count] = 0;
+            }
+        }
+
+        this.outDegrees[this.count] = 0;
+        this.inDegrees[this.count] = 0;
+        this.count++;
+    }
+
+    @Override
+    public void removeVertex(int index) {
+        for (int i = 0; i < this.count; i++) {
+            if (this.adjMatrix[index][i]) {
+                this.inDegrees[i]--;
+                this.edges--;
+            }
+
+            if (this.adjMatrix[i][index] && i != index) {
+                this.outDegrees[i]--;
+                this.edges--;
+            }
+        }
+
+        //recua as linhas seguintes e depois as colunas seguintes
+        removeRow(this.adjMatrix, index);
+
+        for (int i = 0; i < this.count - 1; i++) {
+            System.arraycopy(this.adjMatrix[i], index + 1, this.adjMatrix[i], index, this.count - index - 1);
+            this.adjMatrix[i][this.count - 1] = false;
+        }
+
+        if (this.weight != null) {
+            removeRow(this.weight, index);
+
+            for (int i = 0; i < this.count - 1; i++) {
+                System.arraycopy(this.weight[i], index + 1, this.weight[i], index, this.count - index - 1);
+                this.weight[i][this.count - 1] = 0;
+            }
+        }
+
+        System.arraycopy(this.outDegrees, index + 1, this.outDegrees, index, this.count - index - 1);
+        System.arraycopy(this.inDegrees, index + 1, this.inDegrees, index, this.count - index - 1);
+        this.count--;
+    }
+
+    private void removeRow(Object[] matrix, int index) {
+        Object removed = matrix[index];
+        System.arraycopy(matrix, index + 1, matrix, index, this.count - index - 1);
+        matrix[this.count - 1] = removed;
+
+        if (removed instanceof boolean[]) {
+            Arrays.fill((boolean[]) removed, false);
+        } else {
+            Arrays.fill((double[]) removed, 0);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.count;
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.edges;
+    }
+
+    @Override
+    public long memoryBytes() {
+        long capacity = this.adjMatrix.length;
+        long bytes = 16 + capacity * (24 + capacity) + 2 * (16 + 4 * capacity);
+
+        if (this.weight != null) {
+            bytes += 16 + capacity * (24 + 8 * capacity);
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public GraphStorage kind() {
+        return GraphStorage.MATRIX;
+    }
+
+    @Override
+    public boolean addEdge(int from, int to, double weight) {
+        boolean added = !this.adjMatrix[from][to];
+
+        if (added) {
+            this.adjMatrix[from][to] = true;
+            this.outDegrees[from]++;
+            this.inDegrees[to]++;
+            this.edges++;
+        }
+
+        storeWeight(from, to, weight);
+        return added;
+    }
+
+    private void storeWeight(int from, int to, double weight) {
+        if (this.weight == null) {
+            if (weight == 0) {
+                return;
+            }
+
+            this.weight = new double[this.adjMatrix.length][this.adjMatrix.length];
+        }
+
+        this.weight[from][to] = weight;
+    }
+
+    @Override
+    public boolean removeEdge(int from, int to) {
+        if (!this.adjMatrix[from][to]) {
+            return false;
+        }
+
+        this.adjMatrix[from][to] = false;
+        storeWeight(from, to, 0);
+        this.outDegrees[from]--;
+        this.inDegrees[to]--;
+        this.edges--;
+
+        return true;
+    }
+
+    @Override
+    public boolean hasEdge(int from, int to) {
+        return this.adjMatrix[from][to];
+    }
+
+    @Override
+    public boolean setWeight(int from, int to, double weight) {
+        if (!this.adjMatrix[from][to]) {
+            return false;
+        }
+
+        storeWeight(from, to, weight);
+        return true;
+    }
+
+    @Override
+    public double getWeight(int from, int to) {
+        return this.weight == null ? 0 : this.weight[from][to];
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return this.outDegrees[vertex];
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return this.inDegrees[vertex];
+    }
+
+    @Override
+    public int firstEdge(int vertex) {
+        return nextEdge(vertex, -1);
+    }
+
+    @Override
+    public int nextEdge(int vertex, int cursor) {
+        boolean[] row = this.adjMatrix[vertex];
+
+        for (int i = cursor + 1; i < this.count; i++) {
+            if (row[i]) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int edgeTarget(int vertex, int cursor) {
+        return cursor;
+    }
+
+    @Override
+    public double edgeWeight(int vertex, int cursor) {
+        return getWeight(vertex, cursor);
+    }
+
+    @Override
+    public int firstInEdge(int vertex) {
+        return nextInEdge(vertex, -1);
+    }
+
+    @Override
+    public int nextInEdge(int vertex, int cursor) {
+        for (int i = cursor + 1; i < this.count; i++) {
+            if (this.adjMatrix[i][vertex]) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int inEdgeSource(int vertex, int cursor) {
+        return cursor;
+    }
+
+    @Override
+    public double inEdgeWeight(int vertex, int cursor) {
+        return getWeight(cursor, vertex);
+    }
+
+    /**
+     * Returns a string representation of the adjacency matrix
+     * @return a string representation of the adjacency matrix
+     */
+    @Override
+    public String toString() {
+        boolean[][] matrix = new boolean[this.count][];
+
+        for (int i = 0; i < this.count; i++) {
+            matrix[i] = Arrays.copyOf(this.adjMatrix[i], this.count);
+        }
+
+        return Arrays.deepToString(matrix);
+    }
+}
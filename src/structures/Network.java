@@ -7,21 +7,34 @@ import exceptions.UnknownPathException;
 
 public class Network<T> extends Graph<T> implements NetworkADT<T> {
 
-    private double[][] weight;
-    private Pair<T> tmpPair;
-
+    /**
+     * Creates an empty network backed by an adjacency matrix
+     * @param clazz the class of the vertices
+     */
     public Network(Class<T> clazz) {
         super(clazz);
-        this.weight = new double[this.DEFAULT_CAPACITY][this.DEFAULT_CAPACITY];
     }
 
-    @Override
-    public void addVertex(T vertex) {
-        if (this.numVertices + 1 >= this.adjMatrix.length) {
-            this.expandMatrix();
-        }
+    /**
+     * Creates an empty network using the given edge storage
+     * @param clazz the class of the vertices
+     * @param storage the edge storage backend
+     */
+    public Network(Class<T> clazz, GraphStorage storage) {
+        super(clazz, storage);
+    }
 
-        super.addVertex(vertex);
+    /**
+     * Creates a network from edges in compressed sparse row form, backed by a
+     * {@link SparseAdjacency} that adopts the edge arrays without copying them
+     * @param clazz the class of the vertices
+     * @param vertices the vertices, in index order
+     * @param offsets the start of the row of each vertex, with one more entry than there are vertices
+     * @param targets the target of each edge, sorted within each row
+     * @param weights the weight of each edge
+     */
+    public Network(Class<T> clazz, T[] vertices, int[] offsets, int[] targets, double[] weights) {
+        super(clazz, vertices, new SparseAdjacency(vertices.length, offsets, targets, weights));
     }
 
     /**
@@ -65,11 +78,13 @@ public class Network<T> extends Graph<T> implements NetworkADT<T> {
         int second = this.getIndex(secondVertex);
         
         if (secondVertex.equals("exterior") || firstVertex.equals("exterior") || secondVertex.equals("entrada") || firstVertex.equals("entrada")) {
-            this.weight[first][second] = 0;
-            this.weight[second][first] = 0;
+            this.adjacency.setWeight(first, second, 0);
+            this.adjacency.setWeight(second, first, 0);
         } else {
-            this.weight[first][second] = weight;
+            this.adjacency.setWeight(first, second, weight);
         }
+
+        this.modCount++;
         
     }
 
@@ -77,26 +92,98 @@ public class Network<T> extends Graph<T> implements NetworkADT<T> {
         int first = this.getIndex(firstVertex);
         int second = this.getIndex(secondVertex);
         
-        return this.weight[first][second];
+        return this.adjacency.getWeight(first, second);
+    }
+
+    /**
+     * Inserts an edge between two vertices given by their indices, or updates its weight.
+     * Unlike {@link #addEdge(Object, Object, double)}, no rule based on the vertex values is applied
+     * @param index1 the index of the source vertex
+     * @param index2 the index of the target vertex
+     * @param weight the weight
+     * @throws ElementDoesntExistException if an index is not valid
+     */
+    public void addEdge(int index1, int index2, double weight) throws ElementDoesntExistException {
+        if (weight < 0.0D) {
+            throw new IllegalArgumentException("The weight cannot be under the default.");
+        }
+
+        if (!indexIsValid(index1) || !indexIsValid(index2)) {
+            throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
+        }
+
+        this.adjacency.addEdge(index1, index2, weight);
+        this.modCount++;
+    }
+
+    /**
+     * Changes the weight of an existing edge between two vertices given by their indices.
+     * Unlike {@link #setEdgeWeight(Object, Object, double)}, no rule based on the vertex values is applied
+     * @param index1 the index of the source vertex
+     * @param index2 the index of the target vertex
+     * @param weight the new weight
+     * @throws ElementDoesntExistException if an index is not valid
+     */
+    public void setEdgeWeight(int index1, int index2, double weight) throws ElementDoesntExistException {
+        if (weight < 0.0D) {
+            throw new IllegalArgumentException("The weight cannot be under the default.");
+        }
+
+        if (!indexIsValid(index1) || !indexIsValid(index2)) {
+            throw new ElementDoesntExistException("Couldn't locate the element inside the graph.");
+        }
+
+        if (this.adjacency.setWeight(index1, index2, weight)) {
+            this.modCount++;
+        }
     }
 
-    private void expandMatrix() {
-        double[][] tempMatrix = new double[this.numVertices * 2][this.numVertices * 2];
+    /**
+     * Returns the weight of the edge between two vertices given by their indices
+     * @param index1 the index of the source vertex
+     * @param index2 the index of the target vertex
+     * @return the weight of the edge, or 0 if there is no edge
+     */
+    public double getEdgeWeight(int index1, int index2) {
+        return this.adjacency.getWeight(index1, index2);
+    }
+
+    /**
+     * Returns the number of edges in this network
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return this.adjacency.edgeCount();
+    }
 
-        for (int i = 0; i < this.numVertices; ++i) {
-            for (int j = 0; j < this.numVertices; ++j) {
-                tempMatrix[i][j] = this.weight[i][j];
+    /**
+     * Copies the edges of this network in compressed sparse row form, the
+     * inverse of {@link #Network(Class, Object[], int[], int[], double[])}
+     * @param offsets receives the start of each row, with at least {@code size() + 1} entries
+     * @param targets receives the targets, with at least {@link #edgeCount()} entries
+     * @param weights receives the weights, with at least {@link #edgeCount()} entries
+     */
+    public void toCompressedRows(int[] offsets, int[] targets, double[] weights) {
+        int position = 0;
+
+        for (int v = 0; v < this.numVertices; v++) {
+            offsets[v] = position;
+
+            for (int e = this.adjacency.firstEdge(v); e != -1; e = this.adjacency.nextEdge(v, e)) {
+                targets[position] = this.adjacency.edgeTarget(v, e);
+                weights[position] = this.adjacency.edgeWeight(v, e);
+                position++;
             }
         }
 
-        this.weight = tempMatrix;
+        offsets[this.numVertices] = position;
     }
 
     /**
-     * Returns the weight of the shortest path in this network
+     * Returns the shortest path between two vertices in this network
      * @param vertex1 the first vertex
      * @param vertex2 the second vertex
-     * @return the weight of the shortest path in this network
+     * @return the vertices of the shortest path, from the first to the second vertex
      * @throws exceptions.EmptyCollectionException
      * @throws exceptions.UnknownPathException
      * @throws exceptions.ElementDoesntExistException
@@ -104,40 +191,137 @@ public class Network<T> extends Graph<T> implements NetworkADT<T> {
      */
     @Override
     public ArrayUnorderedList<T> shortestPathWeight(T vertex1, T vertex2) throws EmptyCollectionException, UnknownPathException, ElementDoesntExistException, InvalidOperationException {
-        PriorityQueue<Pair<T>> priorityQueue = new PriorityQueue<Pair<T>>();
-        UnorderedListADT<T> verticesFromPossiblePath = new ArrayUnorderedList<>();
-        ArrayUnorderedList<T> result = new ArrayUnorderedList<>();
-        Pair<T> startPair = new Pair<>(null, vertex1, 0.0);
+        int target = getIndex(vertex2);
+        ShortestPathTree tree = new DijkstraSearch(this.adjacency).run(getIndex(vertex1), target);
+
+        return toVertices(tree.pathTo(target));
+    }
 
-        priorityQueue.addElement(startPair, (int) startPair.cost);
+    /**
+     * Returns the weight of the shortest path between two vertices
+     * @param vertex1 the first vertex
+     * @param vertex2 the second vertex
+     * @return the sum of the weights of the shortest path
+     * @throws EmptyCollectionException
+     * @throws ElementDoesntExistException
+     * @throws UnknownPathException if there is no path between the vertices
+     */
+    public double shortestPathCost(T vertex1, T vertex2) throws EmptyCollectionException, ElementDoesntExistException, UnknownPathException {
+        int target = getIndex(vertex2);
+        ShortestPathTree tree = new DijkstraSearch(this.adjacency).run(getIndex(vertex1), target);
 
-        while (!priorityQueue.isEmpty()) {
-            Pair<T> pair = priorityQueue.removeNext();
-            T vertex = pair.vertex;
-            double minCost = pair.cost;
+        if (!tree.hasPathTo(target)) {
+            throw new UnknownPathException("Path doesn't exist");
+        }
 
-            if (vertex.equals(vertex2)) {
-                Pair<T> finalPair = pair;
+        return tree.getDistance(target);
+    }
 
-                while (finalPair != null) {
-                    result.addToFront(finalPair.vertex);
-                    finalPair = finalPair.previous;
-                }
+    /**
+     * Computes the shortest paths from a vertex to every other vertex of this network
+     * @param vertex the source vertex
+     * @return the shortest path tree, indexed by vertex index
+     * @throws EmptyCollectionException
+     * @throws ElementDoesntExistException
+     */
+    public ShortestPathTree shortestPathTree(T vertex) throws EmptyCollectionException, ElementDoesntExistException {
+        return new DijkstraSearch(this.adjacency).run(getIndex(vertex));
+    }
 
-                return result;
-            }
+    /**
+     * Computes the shortest paths from every vertex of this network to the given one.
+     * The previous vertex of each vertex in the returned tree is its next hop towards the target
+     * @param vertex the target vertex
+     * @return the reverse shortest path tree, indexed by vertex index
+     * @throws EmptyCollectionException
+     * @throws ElementDoesntExistException
+     */
+    public ShortestPathTree reverseShortestPathTree(T vertex) throws EmptyCollectionException, ElementDoesntExistException {
+        return new DijkstraSearch(this.adjacency).runReverse(getIndex(vertex));
+    }
 
-            verticesFromPossiblePath.addToRear(vertex);
+    /**
+     * Computes the shortest paths between every pair of vertices of this network
+     * @return the all pairs table, indexed by vertex index
+     * @throws InvalidOperationException if the network is too large for the table
+     */
+    public AllPairsShortestPaths allPairsShortestPaths() throws InvalidOperationException {
+        return AllPairsShortestPaths.compute(this.adjacency);
+    }
 
-            for (int i = 0; i < numVertices; i++) {
-                if (adjMatrix[getIndex(vertex)][i] && !verticesFromPossiblePath.contains(vertices[i])) {
-                    double minCostToVertex = minCost + weight[getIndex(vertex)][i];
-                    tmpPair = new Pair<>(pair, vertices[i], minCostToVertex);
-                    priorityQueue.addElement(tmpPair, (int) tmpPair.cost);
-                }
-            }
+    /**
+     * Searches the shortest path between two vertices with A*, guided by a heuristic
+     * @param vertex1 the first vertex
+     * @param vertex2 the second vertex
+     * @param heuristic the lower bound of the distance from each vertex index to the second vertex
+     * @return the path, its weight and the number of expanded vertices
+     * @throws EmptyCollectionException
+     * @throws ElementDoesntExistException
+     * @throws UnknownPathException if there is no path between the vertices
+     */
+    public PathResult<T> aStar(T vertex1, T vertex2, Heuristic heuristic) throws EmptyCollectionException, ElementDoesntExistException, UnknownPathException {
+        int target = getIndex(vertex2);
+        ShortestPathTree tree = new AStarSearch(this.adjacency).run(getIndex(vertex1), target, heuristic);
+
+        return new PathResult<>(toVertices(tree.pathTo(target)), tree.getDistance(target), tree.getSettled());
+    }
+
+    /**
+     * Searches the shortest path between two vertices with a bidirectional Dijkstra,
+     * growing one search from each end until they meet
+     * @param vertex1 the first vertex
+     * @param vertex2 the second vertex
+     * @return the path, its weight and the number of expanded vertices
+     * @throws EmptyCollectionException
+     * @throws ElementDoesntExistException
+     * @throws UnknownPathException if there is no path between the vertices
+     */
+    public PathResult<T> bidirectionalShortestPath(T vertex1, T vertex2) throws EmptyCollectionException, ElementDoesntExistException, UnknownPathException {
+        int target = getIndex(vertex2);
+        ShortestPathTree tree = new BidirectionalSearch(this.adjacency).run(getIndex(vertex1), target);
+
+        return new PathResult<>(toVertices(tree.pathTo(target)), tree.getDistance(target), tree.getSettled());
+    }
+
+    /**
+     * Returns a heuristic based on the number of edges from each vertex to the target.
+     * It only guides the search when every edge has a positive weight
+     * @param target the target vertex of the searches
+     * @return the hop distance heuristic
+     * @throws EmptyCollectionException
+     * @throws ElementDoesntExistException
+     */
+    public Heuristic hopHeuristic(T target) throws EmptyCollectionException, ElementDoesntExistException {
+        return Heuristics.hopDistance(this.adjacency, getIndex(target));
+    }
+
+    /**
+     * Computes landmark lower bounds that guide A* towards any target
+     * @param count the number of landmarks
+     * @return the landmarks
+     * @throws EmptyCollectionException
+     */
+    public Landmarks landmarks(int count) throws EmptyCollectionException {
+        return new Landmarks(this.adjacency, count);
+    }
+
+    /**
+     * Converts a path of vertex indices into a list of vertices
+     * @param path the indices of the path, or null if there is no path
+     * @return the list of vertices
+     * @throws UnknownPathException if there is no path
+     */
+    public ArrayUnorderedList<T> toVertices(int[] path) throws UnknownPathException {
+        if (path == null) {
+            throw new UnknownPathException("Path doesn't exist");
+        }
+
+        ArrayUnorderedList<T> result = new ArrayUnorderedList<>();
+
+        for (int i = 0; i < path.length; i++) {
+            result.addToRear(this.vertices[path[i]]);
         }
 
-        throw new UnknownPathException("Path doesn't exist");
+        return result;
     }
 }
@@ -0,0 +1,365 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Level synchronous breadth first search that runs each level in parallel on a
+ * {@link ForkJoinPool} and switches direction as the frontier grows and shrinks.
+ *
+ * While the frontier is small, each frontier vertex claims its unvisited
+ * neighbours (top-down). Once the edges leaving the frontier outnumber a fraction
+ * of the unexplored edges, each unvisited vertex instead looks for a parent in the
+ * frontier and stops at the first one (bottom-up), which skips most edges of the
+ * large middle levels. Bit-packed graphs expand the frontier a whole row of words at a
+ * time. Matrix graphs stay top-down when searching forward, since finding the
+ * incoming edges of a vertex costs O(V) there.
+ */
+public class ParallelBreadthFirstSearch {
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int CHUNK = 1024;
+
+    private final AdjacencyStorage graph;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a search over the given edges using the common pool
+     * @param graph the edges to search
+     */
+    public ParallelBreadthFirstSearch(AdjacencyStorage graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a search over the given edges
+     * @param graph the edges to search
+     * @param pool the pool that runs each level
+     */
+    public ParallelBreadthFirstSearch(AdjacencyStorage graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the vertices that can be reached from the source
+     * @param source the source vertex
+     * @return the reachable vertices
+     */
+    public Reachability reachableFrom(int source) {
+        return run(source, false);
+    }
+
+    /**
+     * Returns the vertices that can reach the target, searching over incoming edges
+     * @param target the target vertex
+     * @return the vertices that reach the target
+     */
+    public Reachability reachingTo(int target) {
+        return run(target, true);
+    }
+
+    private Reachability run(int source, boolean reverse) {
+        int n = this.graph.size();
+        int words = (n + 63) >>> 6;
+        AtomicLongArray visited = new AtomicLongArray(words);
+        long unexplored = this.graph.edgeCount() - degree(source, reverse);
+        int[] frontier = {source};
+        int frontierSize = 1;
+        long[] frontierBits = null;
+        int reached = 1;
+        boolean bottomUpAllowed = reverse || this.graph instanceof SparseAdjacency;
+
+        visited.set(source >>> 6, 1L << source);
+
+        while (frontierSize > 0) {
+            long frontierEdges = 0;
+
+            if (frontierBits == null) {
+                for (int i = 0; i < frontierSize; i++) {
+                    frontierEdges += degree(frontier[i], reverse);
+                }
+            }
+
+            if (bottomUpAllowed && frontierBits == null && frontierEdges * ALPHA > unexplored && frontierSize * (long) BETA > n) {
+                frontierBits = toBits(frontier, frontierSize, words);
+            } else if (frontierBits != null && frontierSize * (long) BETA < n) {
+                frontier = toList(frontierBits, frontierSize);
+                frontierBits = null;
+            }
+
+            if (frontierBits != null) {
+                long[] next = bottomUp(frontierBits, visited, n, reverse);
+                frontierSize = 0;
+
+                for (long word : next) {
+                    frontierSize += Long.bitCount(word);
+                }
+
+                frontierBits = next;
+            } else {
+                frontier = topDown(frontier, frontierSize, visited, words, reverse);
+                frontierSize = frontier.length;
+            }
+
+            reached += frontierSize;
+
+            if (frontierBits != null) {
+                for (int v = nextBit(frontierBits, 0, n); v != -1; v = nextBit(frontierBits, v + 1, n)) {
+                    unexplored -= degree(v, reverse);
+                }
+            } else {
+                for (int i = 0; i < frontierSize; i++) {
+                    unexplored -= degree(frontier[i], reverse);
+                }
+            }
+        }
+
+        long[] bits = new long[words];
+
+        for (int w = 0; w < words; w++) {
+            bits[w] = visited.get(w);
+        }
+
+        return new Reachability(bits, n, reached);
+    }
+
+    private int degree(int vertex, boolean reverse) {
+        return reverse ? this.graph.inDegree(vertex) : this.graph.outDegree(vertex);
+    }
+
+    /**
+     * Runs the chunks of a level on the pool, or in this thread if there is only one
+     */
+    private <R> R[] parallel(int chunks, IntFunction<R> task, IntFunction<R[]> array) {
+        if (chunks == 1) {
+            R[] result = array.apply(1);
+            result[0] = task.apply(0);
+            return result;
+        }
+
+        try {
+            return this.pool.submit(() -> IntStream.range(0, chunks).parallel().mapToObj(task).toArray(array)).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Each frontier vertex claims its unvisited neighbours, returning the next frontier
+     */
+    private int[] topDown(int[] frontier, int frontierSize, AtomicLongArray visited, int words, boolean reverse) {
+        int chunks = (frontierSize + CHUNK - 1) / CHUNK;
+
+        if (!reverse && this.graph instanceof BitsetAdjacency) {
+            return topDownBitset(frontier, frontierSize, visited, words, chunks);
+        }
+
+        int[][] parts = parallel(chunks, c -> {
+            int[] found = new int[16];
+            int size = 0;
+
+            for (int i = c * CHUNK, end = Math.min(frontierSize, i + CHUNK); i < end; i++) {
+                int u = frontier[i];
+                int e = reverse ? this.graph.firstInEdge(u) : this.graph.firstEdge(u);
+
+                while (e != -1) {
+                    int v = reverse ? this.graph.inEdgeSource(u, e) : this.graph.edgeTarget(u, e);
+
+                    if (claim(visited, v)) {
+                        if (size == found.length) {
+                            found = Arrays.copyOf(found, size * 2);
+                        }
+
+                        found[size++] = v;
+                    }
+
+                    e = reverse ? this.graph.nextInEdge(u, e) : this.graph.nextEdge(u, e);
+                }
+            }
+
+            return Arrays.copyOf(found, size);
+        }, int[][]::new);
+
+        return concat(parts);
+    }
+
+    /**
+     * Top-down step for bit-packed graphs: every chunk ORs whole rows into its own bitset
+     */
+    private int[] topDownBitset(int[] frontier, int frontierSize, AtomicLongArray visited, int words, int chunks) {
+        BitsetAdjacency bitset = (BitsetAdjacency) this.graph;
+        long[] seen = new long[words];
+
+        for (int w = 0; w < words; w++) {
+            seen[w] = visited.get(w);
+        }
+
+        long[][] parts = parallel(chunks, c -> {
+            long[] found = new long[words];
+
+            for (int i = c * CHUNK, end = Math.min(frontierSize, i + CHUNK); i < end; i++) {
+                bitset.orRowExcluding(frontier[i], found, seen);
+            }
+
+            return found;
+        }, long[][]::new);
+
+        long[] next = parts[0];
+
+        for (int p = 1; p < parts.length; p++) {
+            for (int w = 0; w < words; w++) {
+                next[w] |= parts[p][w];
+            }
+        }
+
+        int size = 0;
+
+        for (int w = 0; w < words; w++) {
+            visited.set(w, seen[w] | next[w]);
+            size += Long.bitCount(next[w]);
+        }
+
+        return toList(next, size);
+    }
+
+    /**
+     * Each unvisited vertex looks for a parent in the frontier, returning the next frontier.
+     * Every chunk owns whole words, so the bitsets can be written without atomics
+     */
+    private long[] bottomUp(long[] frontier, AtomicLongArray visited, int n, boolean reverse) {
+        int words = frontier.length;
+        int wordsPerChunk = CHUNK >>> 6;
+        int chunks = (words + wordsPerChunk - 1) / wordsPerChunk;
+        long[] next = new long[words];
+
+        parallel(chunks, c -> {
+            for (int w = c * wordsPerChunk, end = Math.min(words, w + wordsPerChunk); w < end; w++) {
+                long visitedWord = visited.get(w);
+                long candidates = ~visitedWord;
+                long found = 0;
+
+                if (w == words - 1 && (n & 63) != 0) {
+                    candidates &= (1L << n) - 1;
+                }
+
+                while (candidates != 0) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(candidates);
+                    candidates &= candidates - 1;
+
+                    if (hasParentIn(v, frontier, reverse)) {
+                        found |= 1L << v;
+                    }
+                }
+
+                next[w] = found;
+                visited.set(w, visitedWord | found);
+            }
+
+            return Boolean.TRUE;
+        }, Boolean[]::new);
+
+        return next;
+    }
+
+    private boolean hasParentIn(int v, long[] frontier, boolean reverse) {
+        int e = reverse ? this.graph.firstEdge(v) : this.graph.firstInEdge(v);
+
+        while (e != -1) {
+            int parent = reverse ? this.graph.edgeTarget(v, e) : this.graph.inEdgeSource(v, e);
+
+            if ((frontier[parent >>> 6] & (1L << parent)) != 0) {
+                return true;
+            }
+
+            e = reverse ? this.graph.nextEdge(v, e) : this.graph.nextInEdge(v, e);
+        }
+
+        return false;
+    }
+
+    private static boolean claim(AtomicLongArray visited, int v) {
+        int w = v >>> 6;
+        long bit = 1L << v;
+
+        while (true) {
+            long word = visited.get(w);
+
+            if ((word & bit) != 0) {
+                return false;
+            }
+
+            if (visited.compareAndSet(w, word, word | bit)) {
+                return true;
+            }
+        }
+    }
+
+    private static int[] concat(int[][] parts) {
+        int size = 0;
+
+        for (int[] part : parts) {
+            size += part.length;
+        }
+
+        int[] result = new int[size];
+        int position = 0;
+
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, result, position, part.length);
+            position += part.length;
+        }
+
+        return result;
+    }
+
+    private static long[] toBits(int[] list, int size, int words) {
+        long[] bits = new long[words];
+
+        for (int i = 0; i < size; i++) {
+            bits[list[i] >>> 6] |= 1L << list[i];
+        }
+
+        return bits;
+    }
+
+    private static int[] toList(long[] bits, int size) {
+        int[] list = new int[size];
+        int position = 0;
+
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                list[position++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+
+        return list;
+    }
+
+    private static int nextBit(long[] bits, int from, int n) {
+        if (from >= n) {
+            return -1;
+        }
+
+        int w = from >>> 6;
+        long word = bits[w] & (-1L << from);
+
+        while (word == 0) {
+            if (++w == bits.length) {
+                return -1;
+            }
+
+            word = bits[w];
+        }
+
+        int v = (w << 6) + Long.numberOfTrailingZeros(word);
+        return v < n ? v : -1;
+    }
+}
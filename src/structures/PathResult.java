@@ -0,0 +1,57 @@
+package structures;
+
+/**
+ * Shortest path between two vertices, with its weight and the number of
+ * vertices the search had to expand to find it
+ * @param <T> the type of the vertices
+ */
+public class PathResult<T> {
+    private final ArrayUnorderedList<T> path;
+    private final double cost;
+    private final int expanded;
+
+    /**
+     * Creates a path result
+     * @param path the vertices of the path, in order
+     * @param cost the sum of the weights of the path
+     * @param expanded the number of vertices expanded by the search
+     */
+    public PathResult(ArrayUnorderedList<T> path, double cost, int expanded) {
+        this.path = path;
+        this.cost = cost;
+        this.expanded = expanded;
+    }
+
+    /**
+     * Returns the vertices of the path, in order
+     * @return the vertices of the path
+     */
+    public ArrayUnorderedList<T> getPath() {
+        return this.path;
+    }
+
+    /**
+     * Returns the sum of the weights of the path
+     * @return the weight of the path
+     */
+    public double getCost() {
+        return this.cost;
+    }
+
+    /**
+     * Returns the number of vertices expanded by the search
+     * @return the number of expanded vertices
+     */
+    public int getExpanded() {
+        return this.expanded;
+    }
+
+    /**
+     * Returns a string representation of this path
+     * @return a string representation of this path
+     */
+    @Override
+    public String toString() {
+        return "Path: " + this.path + "; Cost: " + this.cost + "; Expanded: " + this.expanded;
+    }
+}
@@ -0,0 +1,415 @@
+package structures;
+
+import exceptions.EmptyCollectionException;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Order statistic tree: an AVL tree where every node also stores the size of its
+ * subtree. Besides O(log n) insertion and removal, this gives the rank of an element
+ * and the element at a given rank in O(log n), so the first k elements can be read
+ * without walking the whole tree. Equal elements are kept in insertion order.
+ *
+ * A snapshot of the tree is taken in O(1) and shares every node with it. Each node
+ * belongs to the tree that created it, and a tree copies the nodes it doesn't own
+ * before changing them, so a change after a snapshot copies only the O(log n) nodes
+ * on its path and the snapshot never sees it.
+ * @param <T> the type of the elements
+ */
+public class RankedTree<T> implements Iterable<T> {
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+    private int modCount;
+    private Object owner;
+
+    /**
+     * Creates an empty tree ordered by the given comparator
+     * @param comparator the order of the elements
+     */
+    public RankedTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        this.root = null;
+        this.modCount = 0;
+        this.owner = new Object();
+    }
+
+    private RankedTree(Comparator<? super T> comparator, Node<T> root) {
+        this.comparator = comparator;
+        this.root = root;
+        this.modCount = 0;
+        this.owner = new Object();
+    }
+
+    /**
+     * Returns a copy of this tree in O(1). Neither tree sees the changes made to the
+     * other afterwards, so a snapshot that is never changed can be read by any number
+     * of threads while this tree keeps changing
+     * @return the snapshot
+     */
+    public RankedTree<T> snapshot() {
+        //os nós atuais passam a ser partilhados e são copiados pela próxima alteração
+        this.owner = new Object();
+        return new RankedTree<>(this.comparator, this.root);
+    }
+
+    /**
+     * Returns the number of elements in this tree
+     * @return the number of elements
+     */
+    public int size() {
+        return size(this.root);
+    }
+
+    /**
+     * Checks if this tree is empty
+     * @return true if the tree has no elements
+     */
+    public boolean isEmpty() {
+        return this.root == null;
+    }
+
+    /**
+     * Adds an element after every element equal to it
+     * @param element the element to add
+     */
+    public void add(T element) {
+        this.root = add(this.root, element);
+        this.modCount++;
+    }
+
+    private Node<T> add(Node<T> node, T element) {
+        if (node == null) {
+            return new Node<>(element, this.owner);
+        }
+
+        node = own(node);
+
+        if (this.comparator.compare(element, node.element) < 0) {
+            node.left = add(node.left, element);
+        } else {
+            node.right = add(node.right, element);
+        }
+
+        return balance(node);
+    }
+
+    /**
+     * Removes one element equal to the given one
+     * @param element the element to remove
+     * @return true if an element was removed
+     */
+    public boolean remove(T element) {
+        int before = size();
+        this.root = remove(this.root, element);
+
+        if (size() == before) {
+            return false;
+        }
+
+        this.modCount++;
+        return true;
+    }
+
+    private Node<T> remove(Node<T> node, T element) {
+        if (node == null) {
+            return null;
+        }
+
+        int compare = this.comparator.compare(element, node.element);
+
+        if (compare < 0) {
+            node = own(node);
+            node.left = remove(node.left, element);
+        } else if (compare > 0) {
+            node = own(node);
+            node.right = remove(node.right, element);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else {
+            Node<T> successor = node.right;
+
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+
+            node = own(node);
+            node.element = successor.element;
+            node.right = removeFirst(node.right);
+        }
+
+        return balance(node);
+    }
+
+    private Node<T> removeFirst(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+
+        node = own(node);
+        node.left = removeFirst(node.left);
+        return balance(node);
+    }
+
+    /**
+     * Returns the number of elements strictly before the given one, which is its
+     * position if it is in the tree, or the position it would take otherwise
+     * @param element the element
+     * @return the 0-based rank of the element
+     */
+    public int rank(T element) {
+        Node<T> node = this.root;
+        int rank = 0;
+
+        while (node != null) {
+            if (this.comparator.compare(element, node.element) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Returns the element at the given position
+     * @param index the 0-based position
+     * @return the element at that position
+     * @throws IndexOutOfBoundsException if the position is not valid
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        Node<T> node = this.root;
+
+        while (true) {
+            int left = size(node.left);
+
+            if (index < left) {
+                node = node.left;
+            } else if (index > left) {
+                index -= left + 1;
+                node = node.right;
+            } else {
+                return node.element;
+            }
+        }
+    }
+
+    /**
+     * Returns the first element of this tree
+     * @return the smallest element
+     * @throws EmptyCollectionException if the tree is empty
+     */
+    public T first() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException("The tree is empty");
+        }
+
+        return get(0);
+    }
+
+    /**
+     * Returns the last element of this tree
+     * @return the largest element
+     * @throws EmptyCollectionException if the tree is empty
+     */
+    public T last() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException("The tree is empty");
+        }
+
+        return get(size() - 1);
+    }
+
+    /**
+     * Returns up to the given number of elements, starting at a position, in order.
+     * Costs O(log n + count)
+     * @param from the 0-based position of the first element
+     * @param count the maximum number of elements
+     * @return the elements in order
+     */
+    public ArrayUnorderedList<T> range(int from, int count) {
+        ArrayUnorderedList<T> list = new ArrayUnorderedList<>();
+        Iterator<T> iterator = iterator(from);
+
+        for (int i = 0; i < count && iterator.hasNext(); i++) {
+            list.addToRear(iterator.next());
+        }
+
+        return list;
+    }
+
+    /**
+     * Removes every element
+     */
+    public void clear() {
+        this.root = null;
+        this.modCount++;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Returns an in-order iterator that starts at the given position
+     * @param from the 0-based position of the first element
+     * @return the iterator
+     */
+    public Iterator<T> iterator(int from) {
+        return new TreeIterator(from);
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    }
+
+    private Node<T> balance(Node<T> node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+
+            return rotateRight(node);
+        }
+
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    /**
+     * Returns the node itself if this tree owns it, or a copy owned by this tree
+     */
+    private Node<T> own(Node<T> node) {
+        if (node.owner == this.owner) {
+            return node;
+        }
+
+        Node<T> copy = new Node<>(node.element, this.owner);
+        copy.left = node.left;
+        copy.right = node.right;
+        copy.size = node.size;
+        copy.height = node.height;
+        return copy;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        node = own(node);
+        Node<T> left = own(node.left);
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        node = own(node);
+        Node<T> right = own(node.right);
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static final class Node<T> {
+        private T element;
+        private Node<T> left;
+        private Node<T> right;
+        private int size;
+        private int height;
+        private final Object owner;
+
+        private Node(T element, Object owner) {
+            this.element = element;
+            this.owner = owner;
+            this.size = 1;
+            this.height = 1;
+        }
+    }
+
+    /**
+     * In-order iterator with an explicit stack of the nodes still to visit
+     */
+    private class TreeIterator implements Iterator<T> {
+        private final LinkedStack<Node<T>> stack;
+        private final int expectedModCount;
+
+        private TreeIterator(int from) {
+            this.stack = new LinkedStack<>();
+            this.expectedModCount = RankedTree.this.modCount;
+            Node<T> node = RankedTree.this.root;
+
+            //walk down to the start position, keeping the nodes still to be visited on the way
+            while (node != null) {
+                int left = size(node.left);
+
+                if (from < left) {
+                    this.stack.push(node);
+                    node = node.left;
+                } else if (from > left) {
+                    from -= left + 1;
+                    node = node.right;
+                } else {
+                    this.stack.push(node);
+                    node = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (RankedTree.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Node<T> node = this.stack.pop();
+
+            for (Node<T> child = node.right; child != null; child = child.left) {
+                this.stack.push(child);
+            }
+
+            return node.element;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package structures;
+
+/**
+ * Set of vertex indices reached by a search, stored as a bitset of 64 vertices per word
+ */
+public class Reachability {
+    private final long[] bits;
+    private final int size;
+    private final int count;
+
+    /**
+     * Creates a reachability set
+     * @param bits the bitset of reached vertices
+     * @param size the number of vertices of the graph
+     * @param count the number of reached vertices
+     */
+    public Reachability(long[] bits, int size, int count) {
+        this.bits = bits;
+        this.size = size;
+        this.count = count;
+    }
+
+    /**
+     * Returns true if the vertex was reached
+     * @param vertex the index of the vertex
+     * @return true if the vertex was reached
+     */
+    public boolean contains(int vertex) {
+        return (this.bits[vertex >>> 6] & (1L << vertex)) != 0;
+    }
+
+    /**
+     * Returns the number of reached vertices
+     * @return the number of reached vertices
+     */
+    public int cardinality() {
+        return this.count;
+    }
+
+    /**
+     * Returns the number of vertices of the graph
+     * @return the number of vertices
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns true if every vertex of the graph was reached
+     * @return true if every vertex was reached
+     */
+    public boolean isComplete() {
+        return this.count == this.size;
+    }
+
+    /**
+     * Returns the index of the first reached vertex at or after the given one
+     * @param from the index to start from
+     * @return the index of the vertex, or -1 if there is none
+     */
+    public int nextReached(int from) {
+        if (from >= this.size) {
+            return -1;
+        }
+
+        int w = from >>> 6;
+        long word = this.bits[w] & (-1L << from);
+
+        while (word == 0) {
+            if (++w == this.bits.length) {
+                return -1;
+            }
+
+            word = this.bits[w];
+        }
+
+        int vertex = (w << 6) + Long.numberOfTrailingZeros(word);
+        return vertex < this.size ? vertex : -1;
+    }
+
+    /**
+     * Returns a copy of the bitset of reached vertices
+     * @return the bitset
+     */
+    public long[] toBits() {
+        return this.bits.clone();
+    }
+}
@@ -0,0 +1,102 @@
+package structures;
+
+/**
+ * Result of a single source shortest path search: the distance from the source
+ * to each vertex and the previous vertex on its shortest path, kept in primitive arrays
+ */
+public class ShortestPathTree {
+    private final int source;
+    private final double[] dist;
+    private final int[] prev;
+    private final int settled;
+
+    /**
+     * Creates a shortest path tree from the arrays filled by a search
+     * @param source the source vertex
+     * @param dist the distance to each vertex, infinite when unreachable
+     * @param prev the previous vertex on each path, -1 for the source and unreachable vertices
+     * @param settled the number of vertices the search expanded
+     */
+    public ShortestPathTree(int source, double[] dist, int[] prev, int settled) {
+        this.source = source;
+        this.dist = dist;
+        this.prev = prev;
+        this.settled = settled;
+    }
+
+    /**
+     * Returns the source vertex of the search
+     * @return the source vertex
+     */
+    public int getSource() {
+        return this.source;
+    }
+
+    /**
+     * Returns the number of vertices expanded by the search
+     * @return the number of expanded vertices
+     */
+    public int getSettled() {
+        return this.settled;
+    }
+
+    /**
+     * Returns the weight of the shortest path to a vertex
+     * @param vertex the vertex
+     * @return the distance, or infinity if the vertex is unreachable
+     */
+    public double getDistance(int vertex) {
+        return this.dist[vertex];
+    }
+
+    /**
+     * Returns the vertex before the given one on its shortest path
+     * @param vertex the vertex
+     * @return the previous vertex, or -1 if there is none
+     */
+    public int getPrevious(int vertex) {
+        return this.prev[vertex];
+    }
+
+    /**
+     * Returns true if a path to the vertex was found
+     * @param vertex the vertex
+     * @return true if the vertex is reachable
+     */
+    public boolean hasPathTo(int vertex) {
+        return this.dist[vertex] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the vertices of the shortest path from the source to a vertex
+     * @param vertex the last vertex of the path
+     * @return the path, starting at the source, or null if the vertex is unreachable
+     */
+    public int[] pathTo(int vertex) {
+        if (!hasPathTo(vertex)) {
+            return null;
+        }
+
+        int length = 1;
+
+        for (int v = vertex; v != this.source; v = this.prev[v]) {
+            length++;
+        }
+
+        int[] path = new int[length];
+
+        for (int v = vertex, i = length - 1; i >= 0; v = this.prev[v], i--) {
+            path[i] = v;
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns an estimate of the heap memory held by this tree
+     * @return the estimated size in bytes
+     */
+    public long memoryBytes() {
+        return 32 + 16 + 8L * this.dist.length + 16 + 4L * this.prev.length;
+    }
+}
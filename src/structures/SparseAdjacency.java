@@ -0,0 +1,429 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Compressed sparse row (CSR) storage. Each vertex owns a sorted slice of a
+ * shared {@code int[]} target array and a parallel {@code double[]} weight array,
+ * located by its offset. Memory is O(V + E) and neighbour enumeration is O(degree).
+ *
+ * Slices keep some slack so edges can still be inserted after the graph is built:
+ * a full slice is moved to the end of the arrays with twice the capacity, and the
+ * arrays are compacted once more than half of them is unused.
+ * Incoming edges are kept in a second, transposed set of rows.
+ */
+public class SparseAdjacency implements AdjacencyStorage {
+    private final Rows out;
+    private final Rows in;
+    private int count;
+
+    /**
+     * Creates an empty storage with room for the given number of vertices
+     * @param capacity the initial vertex capacity
+     */
+    public SparseAdjacency(int capacity) {
+        this.out = new Rows(capacity);
+        this.in = new Rows(capacity);
+        this.count = 0;
+    }
+
+    /**
+     * Creates a storage from edges already in compressed sparse row form. The
+     * arrays are adopted without copying, and the incoming rows are built by a
+     * counting pass, so the whole build is O(V + E)
+     * @param count the number of vertices
+     * @param offsets the start of the row of each vertex, with {@code count + 1} entries
+     * @param targets the targets of every row, sorted within each row
+     * @param weights the weights parallel to the targets
+     */
+    public SparseAdjacency(int count, int[] offsets, int[] targets, double[] weights) {
+        if (offsets.length < count + 1 || offsets[0] != 0 || targets.length < offsets[count] || weights.length < offsets[count]) {
+            throw new IllegalArgumentException("The rows don't match the edge arrays.");
+        }
+
+        for (int v = 0; v < count; v++) {
+            if (offsets[v + 1] < offsets[v]) {
+                throw new IllegalArgumentException("The row offsets must not decrease.");
+            }
+
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (targets[i] < 0 || targets[i] >= count || (i > offsets[v] && targets[i] <= targets[i - 1])) {
+                    throw new IllegalArgumentException("Each row must hold distinct targets in increasing order.");
+                }
+            }
+        }
+
+        this.out = new Rows(count, offsets, targets, weights);
+        this.in = Rows.transpose(count, offsets, targets, weights);
+        this.count = count;
+    }
+
+    @Override
+    public void addVertex() {
+        this.out.addRow(this.count);
+        this.in.addRow(this.count);
+        this.count++;
+    }
+
+    @Override
+    public void removeVertex(int index) {
+        this.out.removeRow(index, this.count);
+        this.in.removeRow(index, this.count);
+        this.count--;
+    }
+
+    @Override
+    public int size() {
+        return this.count;
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.out.live;
+    }
+
+    @Override
+    public long memoryBytes() {
+        return this.out.memoryBytes() + this.in.memoryBytes();
+    }
+
+    @Override
+    public GraphStorage kind() {
+        return GraphStorage.SPARSE;
+    }
+
+    @Override
+    public boolean addEdge(int from, int to, double weight) {
+        if (this.out.insert(from, to, weight, this.count)) {
+            this.in.insert(to, from, weight, this.count);
+            return true;
+        }
+
+        this.in.update(to, from, weight);
+        return false;
+    }
+
+    @Override
+    public boolean removeEdge(int from, int to) {
+        if (this.out.delete(from, to)) {
+            this.in.delete(to, from);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean hasEdge(int from, int to) {
+        return this.out.find(from, to) >= 0;
+    }
+
+    @Override
+    public boolean setWeight(int from, int to, double weight) {
+        if (this.out.update(from, to, weight)) {
+            this.in.update(to, from, weight);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public double getWeight(int from, int to) {
+        int position = this.out.find(from, to);
+        return position < 0 ? 0 : this.out.weights[position];
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return this.out.degrees[vertex];
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return this.in.degrees[vertex];
+    }
+
+    @Override
+    public int firstEdge(int vertex) {
+        return this.out.degrees[vertex] == 0 ? -1 : this.out.offsets[vertex];
+    }
+
+    @Override
+    public int nextEdge(int vertex, int cursor) {
+        return cursor + 1 < this.out.offsets[vertex] + this.out.degrees[vertex] ? cursor + 1 : -1;
+    }
+
+    @Override
+    public int edgeTarget(int vertex, int cursor) {
+        return this.out.targets[cursor];
+    }
+
+    @Override
+    public double edgeWeight(int vertex, int cursor) {
+        return this.out.weights[cursor];
+    }
+
+    @Override
+    public int firstInEdge(int vertex) {
+        return this.in.degrees[vertex] == 0 ? -1 : this.in.offsets[vertex];
+    }
+
+    @Override
+    public int nextInEdge(int vertex, int cursor) {
+        return cursor + 1 < this.in.offsets[vertex] + this.in.degrees[vertex] ? cursor + 1 : -1;
+    }
+
+    @Override
+    public int inEdgeSource(int vertex, int cursor) {
+        return this.in.targets[cursor];
+    }
+
+    @Override
+    public double inEdgeWeight(int vertex, int cursor) {
+        return this.in.weights[cursor];
+    }
+
+    /**
+     * Returns a string representation of the rows of this storage
+     * @return a string representation of the rows of this storage
+     */
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("[");
+
+        for (int v = 0; v < this.count; v++) {
+            int start = this.out.offsets[v];
+            str.append(v == 0 ? "" : ", ").append(v).append("->")
+                    .append(Arrays.toString(Arrays.copyOfRange(this.out.targets, start, start + this.out.degrees[v])));
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * One direction of the edges: sorted slices of the shared target and weight arrays
+     */
+    private static final class Rows {
+        private static final int MIN_ROW_CAPACITY = 2;
+
+        private int[] offsets;
+        private int[] degrees;
+        private int[] capacities;
+        private int[] targets;
+        private double[] weights;
+        private int used;
+        private int live;
+
+        private Rows(int capacity) {
+            this.offsets = new int[capacity];
+            this.degrees = new int[capacity];
+            this.capacities = new int[capacity];
+            this.targets = new int[capacity * MIN_ROW_CAPACITY];
+            this.weights = new double[capacity * MIN_ROW_CAPACITY];
+            this.used = 0;
+            this.live = 0;
+        }
+
+        private Rows(int count, int[] offsets, int[] targets, double[] weights) {
+            int edges = offsets[count];
+            this.offsets = Arrays.copyOf(offsets, Math.max(1, count));
+            this.degrees = new int[this.offsets.length];
+            this.capacities = new int[this.offsets.length];
+            this.targets = targets;
+            this.weights = weights;
+            this.used = edges;
+            this.live = edges;
+
+            for (int v = 0; v < count; v++) {
+                this.degrees[v] = offsets[v + 1] - offsets[v];
+                this.capacities[v] = this.degrees[v];
+            }
+        }
+
+        /**
+         * Builds the transposed rows with a counting sort on the targets. Sources
+         * are visited in increasing order, so every transposed row comes out sorted
+         */
+        private static Rows transpose(int count, int[] offsets, int[] targets, double[] weights) {
+            int edges = offsets[count];
+            int[] inOffsets = new int[count + 1];
+            int[] inSources = new int[edges];
+            double[] inWeights = new double[edges];
+
+            for (int i = 0; i < edges; i++) {
+                inOffsets[targets[i] + 1]++;
+            }
+
+            for (int v = 0; v < count; v++) {
+                inOffsets[v + 1] += inOffsets[v];
+            }
+
+            int[] next = Arrays.copyOf(inOffsets, count);
+
+            for (int v = 0; v < count; v++) {
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int position = next[targets[i]]++;
+                    inSources[position] = v;
+                    inWeights[position] = weights[i];
+                }
+            }
+
+            return new Rows(count, inOffsets, inSources, inWeights);
+        }
+
+        private void addRow(int row) {
+            if (row == this.offsets.length) {
+                int capacity = Math.max(1, row * 2);
+                this.offsets = Arrays.copyOf(this.offsets, capacity);
+                this.degrees = Arrays.copyOf(this.degrees, capacity);
+                this.capacities = Arrays.copyOf(this.capacities, capacity);
+            }
+
+            this.offsets[row] = this.used;
+            this.degrees[row] = 0;
+            this.capacities[row] = 0;
+        }
+
+        /**
+         * Removes a row and renumbers every entry that pointed past it
+         */
+        private void removeRow(int row, int count) {
+            this.live -= this.degrees[row];
+
+            for (int v = 0; v < count; v++) {
+                if (v == row) {
+                    continue;
+                }
+
+                int start = this.offsets[v];
+                int end = start + this.degrees[v];
+                int write = start;
+
+                for (int i = start; i < end; i++) {
+                    int target = this.targets[i];
+
+                    if (target != row) {
+                        this.targets[write] = target > row ? target - 1 : target;
+                        this.weights[write] = this.weights[i];
+                        write++;
+                    }
+                }
+
+                this.live -= end - write;
+                this.degrees[v] = write - start;
+            }
+
+            System.arraycopy(this.offsets, row + 1, this.offsets, row, count - row - 1);
+            System.arraycopy(this.degrees, row + 1, this.degrees, row, count - row - 1);
+            System.arraycopy(this.capacities, row + 1, this.capacities, row, count - row - 1);
+        }
+
+        private long memoryBytes() {
+            return 3 * (16 + 4L * this.offsets.length) + 16 + 4L * this.targets.length + 16 + 8L * this.weights.length;
+        }
+
+        /**
+         * Returns the position of the entry, or -(insertion point) - 1 if absent
+         */
+        private int find(int row, int target) {
+            return Arrays.binarySearch(this.targets, this.offsets[row], this.offsets[row] + this.degrees[row], target);
+        }
+
+        private boolean insert(int row, int target, double weight, int count) {
+            int position = find(row, target);
+
+            if (position >= 0) {
+                this.weights[position] = weight;
+                return false;
+            }
+
+            if (this.degrees[row] == this.capacities[row]) {
+                grow(row, count);
+                position = find(row, target);
+            }
+
+            position = -position - 1;
+            int end = this.offsets[row] + this.degrees[row];
+            System.arraycopy(this.targets, position, this.targets, position + 1, end - position);
+            System.arraycopy(this.weights, position, this.weights, position + 1, end - position);
+            this.targets[position] = target;
+            this.weights[position] = weight;
+            this.degrees[row]++;
+            this.live++;
+
+            return true;
+        }
+
+        private boolean update(int row, int target, double weight) {
+            int position = find(row, target);
+
+            if (position < 0) {
+                return false;
+            }
+
+            this.weights[position] = weight;
+            return true;
+        }
+
+        private boolean delete(int row, int target) {
+            int position = find(row, target);
+
+            if (position < 0) {
+                return false;
+            }
+
+            int end = this.offsets[row] + this.degrees[row];
+            System.arraycopy(this.targets, position + 1, this.targets, position, end - position - 1);
+            System.arraycopy(this.weights, position + 1, this.weights, position, end - position - 1);
+            this.degrees[row]--;
+            this.live--;
+
+            return true;
+        }
+
+        /**
+         * Moves a full row to the end of the arrays with twice its capacity
+         */
+        private void grow(int row, int count) {
+            int capacity = Math.max(MIN_ROW_CAPACITY, this.capacities[row] * 2);
+
+            if (this.used - this.live > this.used / 2) {
+                compact(count);
+            }
+
+            if (this.used + capacity > this.targets.length) {
+                int length = Math.max(this.used + capacity, this.targets.length * 2);
+                this.targets = Arrays.copyOf(this.targets, length);
+                this.weights = Arrays.copyOf(this.weights, length);
+            }
+
+            System.arraycopy(this.targets, this.offsets[row], this.targets, this.used, this.degrees[row]);
+            System.arraycopy(this.weights, this.offsets[row], this.weights, this.used, this.degrees[row]);
+            this.offsets[row] = this.used;
+            this.capacities[row] = capacity;
+            this.used += capacity;
+        }
+
+        /**
+         * Packs every row back to back, dropping the slack left by moved rows
+         */
+        private void compact(int count) {
+            int[] packedTargets = new int[this.targets.length];
+            double[] packedWeights = new double[this.weights.length];
+            int position = 0;
+
+            for (int v = 0; v < count; v++) {
+                System.arraycopy(this.targets, this.offsets[v], packedTargets, position, this.degrees[v]);
+                System.arraycopy(this.weights, this.offsets[v], packedWeights, position, this.degrees[v]);
+                this.offsets[v] = position;
+                this.capacities[v] = this.degrees[v];
+                position += this.degrees[v];
+            }
+
+            this.targets = packedTargets;
+            this.weights = packedWeights;
+            this.used = position;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Hash table from elements to their integer index, using open addressing with
+ * linear probing. Lookups, insertions and removals are O(1) on average.
+ * @param <T> the type of the keys
+ */
+public class VertexIndex<T> {
+    private static final int EMPTY = -1;
+
+    private Object[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Creates an empty index with room for the given number of keys
+     * @param capacity the expected number of keys
+     */
+    public VertexIndex(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(4, capacity * 2 - 1)) << 1;
+        this.keys = new Object[slots];
+        this.values = new int[slots];
+        Arrays.fill(this.values, EMPTY);
+        this.size = 0;
+        this.mask = slots - 1;
+    }
+
+    private int slot(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & this.mask;
+    }
+
+    /**
+     * Returns the index associated with a key
+     * @param key the key to look for
+     * @return the index of the key, or -1 if it is not in the table
+     */
+    public int get(T key) {
+        for (int i = slot(key); this.values[i] != EMPTY; i = (i + 1) & this.mask) {
+            if (this.keys[i].equals(key)) {
+                return this.values[i];
+            }
+        }
+
+        return EMPTY;
+    }
+
+    /**
+     * Associates an index with a key, replacing any previous index
+     * @param key the key
+     * @param value the index, which must not be negative
+     */
+    public void put(T key, int value) {
+        if ((this.size + 1) * 2 > this.keys.length) {
+            rehash(this.keys.length * 2);
+        }
+
+        int i = slot(key);
+
+        while (this.values[i] != EMPTY) {
+            if (this.keys[i].equals(key)) {
+                this.values[i] = value;
+                return;
+            }
+
+            i = (i + 1) & this.mask;
+        }
+
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.size++;
+    }
+
+    /**
+     * Removes a key from the table
+     * @param key the key to remove
+     * @return the index the key had, or -1 if it was not in the table
+     */
+    public int remove(T key) {
+        int i = slot(key);
+
+        while (this.values[i] != EMPTY && !this.keys[i].equals(key)) {
+            i = (i + 1) & this.mask;
+        }
+
+        if (this.values[i] == EMPTY) {
+            return EMPTY;
+        }
+
+        int removed = this.values[i];
+
+        //recua as entradas seguintes do mesmo cluster para não deixar buracos na sondagem
+        int next = (i + 1) & this.mask;
+
+        while (this.values[next] != EMPTY) {
+            int home = slot(this.keys[next]);
+
+            if (((next - home) & this.mask) >= ((next - i) & this.mask)) {
+                this.keys[i] = this.keys[next];
+                this.values[i] = this.values[next];
+                i = next;
+            }
+
+            next = (next + 1) & this.mask;
+        }
+
+        this.keys[i] = null;
+        this.values[i] = EMPTY;
+        this.size--;
+
+        return removed;
+    }
+
+    /**
+     * Decrements every index greater than the given one, keeping the table in
+     * sync with an array from which that position was removed
+     * @param removed the removed position
+     */
+    public void shiftAfter(int removed) {
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] > removed) {
+                this.values[i]--;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys in the table
+     * @return the number of keys
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns an estimate of the heap memory held by the table, not counting the keys themselves
+     * @return the estimated size in bytes
+     */
+    public long memoryBytes() {
+        return 16 + 8L * this.keys.length + 16 + 4L * this.values.length;
+    }
+
+    private void rehash(int slots) {
+        Object[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+
+        this.keys = new Object[slots];
+        this.values = new int[slots];
+        Arrays.fill(this.values, EMPTY);
+        this.mask = slots - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                int j = slot(oldKeys[i]);
+
+                while (this.values[j] != EMPTY) {
+                    j = (j + 1) & this.mask;
+                }
+
+                this.keys[j] = oldKeys[i];
+                this.values[j] = oldValues[i];
+            }
+        }
+    }
+}